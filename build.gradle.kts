@@ -29,6 +29,7 @@ dependencies {
     implementation("io.jsonwebtoken:jjwt-impl:0.11.5")
     implementation("io.jsonwebtoken:jjwt-jackson:0.11.5")
 
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-validation")
@@ -36,11 +37,14 @@ dependencies {
 
     implementation("org.flywaydb:flyway-core")
 
+    implementation("net.logstash.logback:logstash-logback-encoder:7.4")
+
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.3.0")
 
     compileOnly("org.projectlombok:lombok")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
-    runtimeOnly("org.postgresql:postgresql")
+    // PGConnection нужен для LISTEN в PostgresInvalidationTransport
+    implementation("org.postgresql:postgresql")
     annotationProcessor("org.projectlombok:lombok")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
@@ -50,4 +54,79 @@ dependencies {
 
 tasks.withType<Test> {
     useJUnitPlatform()
+}
+
+// Бенчмарки помечены тегом "benchmark" и запускаются отдельно: ./gradlew benchmark
+tasks.named<Test>("test") {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+tasks.register<Test>("benchmark") {
+    description = "Runs performance benchmarks."
+    group = "verification"
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    testLogging {
+        showStandardStreams = true
+    }
+    shouldRunAfter(tasks.named("test"))
+}
+
+// Для модуля reactive: только классы, без application*.properties, logback-spring.xml и миграций,
+// иначе они попадали бы в classpath модуля и перекрывали бы его собственную конфигурацию и логирование
+val classesJar by tasks.registering(Jar::class) {
+    description = "Assembles a jar with the main classes only, without resources."
+    group = "build"
+    archiveClassifier.set("classes")
+    from(sourceSets.main.get().output.classesDirs)
+}
+
+val classesOnly by configurations.creating {
+    isCanBeConsumed = true
+    isCanBeResolved = false
+}
+
+artifacts {
+    add(classesOnly.name, classesJar)
+}
+
+// Быстрый старт: AppCDS-архив снимается на тренировочном запуске prod-профиля.
+// Тренировочный запуск поднимает контекст до onRefresh, поэтому нужна доступная БД
+val cdsDir = layout.buildDirectory.dir("cds")
+
+val explodeBootJar by tasks.registering(Sync::class) {
+    description = "Unpacks the Spring Boot jar for class data sharing."
+    group = "build"
+    from(zipTree(tasks.bootJar.flatMap { it.archiveFile }))
+    into(cdsDir.map { it.dir("app") })
+}
+
+val cdsClasspath by tasks.registering {
+    description = "Writes a stable, explicitly ordered classpath for the CDS archive."
+    group = "build"
+    dependsOn(explodeBootJar)
+    val argsFile = cdsDir.map { it.file("classpath.args") }
+    outputs.file(argsFile)
+    doLast {
+        val libDir = cdsDir.get().dir("app/BOOT-INF/lib").asFile
+        val libs = libDir.listFiles { file -> file.name.endsWith(".jar") }.orEmpty().sortedBy { it.name }
+        val entries = listOf("app/BOOT-INF/classes") + libs.map { "app/BOOT-INF/lib/${it.name}" }
+        argsFile.get().asFile.writeText("-cp " + entries.joinToString(File.pathSeparator) + "\n")
+    }
+}
+
+tasks.register<Exec>("cdsArchive") {
+    description = "Creates an AppCDS archive from a training run of the prod profile."
+    group = "build"
+    dependsOn(cdsClasspath)
+    workingDir(cdsDir)
+    commandLine(
+        "java", "-XX:ArchiveClassesAtExit=app.jsa", "-Dspring.context.exit=onRefresh",
+        "-Dspring.profiles.active=prod", "@classpath.args", "com.example.taskPro.TaskProApplication"
+    )
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.example.taskPro.reactive;
+
+import com.example.taskPro.security.JwtUtil;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+// Реактивный сервис для нагруженных эндпоинтов чтения: соединения не занимают поток на время ожидания БД
+@SpringBootApplication
+@Import(JwtUtil.class)
+public class ReactiveReadApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveReadApplication.class, args);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.taskPro.reactive.controller;
+
+import com.example.taskPro.reactive.dto.Caller;
+import com.example.taskPro.reactive.dto.CommentView;
+import com.example.taskPro.reactive.dto.TaskView;
+import com.example.taskPro.reactive.repository.ReactiveTaskReadRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+
+// Реактивные аналоги эндпоинтов чтения TaskController и CommentController.
+// Ответ отдаётся потоком NDJSON: строки читаются из БД по мере того, как клиент их забирает
+@RestController
+@RequestMapping("/tasks")
+@RequiredArgsConstructor
+public class ReactiveTaskController {
+    private static final String NDJSON = MediaType.APPLICATION_NDJSON_VALUE;
+
+    private final ReactiveTaskReadRepository repository;
+
+    @GetMapping(value = "/filter", produces = NDJSON)
+    public Flux<TaskView> getTasksByAuthorOrExecutorId(
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) Long executorId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        if (authorId == null && executorId == null) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Должен быть указан либо authorId, либо executorId, иначе фильтрация невозможна."));
+        }
+        return repository.findFiltered(authorId, executorId, page, size);
+    }
+
+    @GetMapping(value = "/executor/{executorId}", produces = NDJSON)
+    public Flux<TaskView> getTasksByExecutor(
+            @PathVariable Long executorId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            ServerWebExchange exchange) {
+        Caller caller = exchange.getAttribute(Caller.ATTRIBUTE);
+        if (caller == null || !"USER".equals(caller.role())) {
+            return Flux.error(new ResponseStatusException(HttpStatus.FORBIDDEN, "Нет доступа к ресурсу"));
+        }
+        return repository.findFiltered(null, executorId, page, size);
+    }
+
+    @GetMapping(value = "/{taskId}/comments", produces = NDJSON)
+    public Flux<CommentView> getComments(@PathVariable Long taskId) {
+        return repository.findCommentsByTask(taskId);
+    }
+}
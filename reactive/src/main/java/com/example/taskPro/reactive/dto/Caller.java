@@ -0,0 +1,6 @@
+package com.example.taskPro.reactive.dto;
+
+// Пользователь, от имени которого выполняется запрос (кладётся в атрибуты ServerWebExchange)
+public record Caller(Long userId, String role) {
+    public static final String ATTRIBUTE = Caller.class.getName();
+}
@@ -0,0 +1,6 @@
+package com.example.taskPro.reactive.dto;
+
+import java.time.LocalDateTime;
+
+public record CommentView(Long id, Long taskId, Long authorId, String content, LocalDateTime createdAt) {
+}
@@ -0,0 +1,16 @@
+package com.example.taskPro.reactive.dto;
+
+import java.time.LocalDateTime;
+
+public record TaskView(Long id,
+                       String title,
+                       String description,
+                       String status,
+                       String priority,
+                       Long authorId,
+                       Long executorId,
+                       LocalDateTime createdAt,
+                       LocalDateTime updatedAt,
+                       Integer commentCount,
+                       LocalDateTime lastCommentAt) {
+}
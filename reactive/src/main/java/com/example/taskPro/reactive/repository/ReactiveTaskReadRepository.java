@@ -0,0 +1,82 @@
+package com.example.taskPro.reactive.repository;
+
+import com.example.taskPro.reactive.dto.CommentView;
+import com.example.taskPro.reactive.dto.TaskView;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactiveTaskReadRepository {
+    private static final String TASK_COLUMNS = "id, title, description, status, priority, author_id, executor_id,"
+            + " created_at, updated_at, comment_count, last_comment_at";
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<TaskView> findFiltered(Long authorId, Long executorId, int page, int size) {
+        String where;
+        if (authorId != null && executorId != null) {
+            where = "author_id = :authorId OR executor_id = :executorId";
+        } else if (authorId != null) {
+            where = "author_id = :authorId";
+        } else {
+            where = "executor_id = :executorId";
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient
+                .sql("SELECT " + TASK_COLUMNS + " FROM tasks WHERE " + where + " ORDER BY id LIMIT :limit OFFSET :offset")
+                .bind("limit", size)
+                .bind("offset", (long) page * size);
+        if (authorId != null) {
+            spec = spec.bind("authorId", authorId);
+        }
+        if (executorId != null) {
+            spec = spec.bind("executorId", executorId);
+        }
+        return spec.map((row, metadata) -> toTask(row)).all();
+    }
+
+    public Flux<CommentView> findCommentsByTask(Long taskId) {
+        return databaseClient
+                .sql("SELECT id, task_id, author_id, content, created_at FROM comments WHERE task_id = :taskId ORDER BY id")
+                .bind("taskId", taskId)
+                .map((row, metadata) -> new CommentView(
+                        row.get("id", Long.class),
+                        row.get("task_id", Long.class),
+                        row.get("author_id", Long.class),
+                        row.get("content", String.class),
+                        row.get("created_at", LocalDateTime.class)))
+                .all();
+    }
+
+    // Роль владельца токена; пусто, если пользователя нет или токен отозван
+    public Mono<String> findUserRole(Long userId, String jti) {
+        return databaseClient.sql("SELECT role FROM users WHERE id = :id"
+                        + " AND NOT EXISTS (SELECT 1 FROM revoked_tokens WHERE jti = :jti)")
+                .bind("id", userId)
+                .bind("jti", jti)
+                .map((row, metadata) -> row.get("role", String.class))
+                .one();
+    }
+
+    private TaskView toTask(Row row) {
+        return new TaskView(
+                row.get("id", Long.class),
+                row.get("title", String.class),
+                row.get("description", String.class),
+                row.get("status", String.class),
+                row.get("priority", String.class),
+                row.get("author_id", Long.class),
+                row.get("executor_id", Long.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class),
+                row.get("comment_count", Integer.class),
+                row.get("last_comment_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.taskPro.reactive.security;
+
+import com.example.taskPro.reactive.dto.Caller;
+import com.example.taskPro.reactive.repository.ReactiveTaskReadRepository;
+import com.example.taskPro.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// Та же проверка токена, что и в JwtFilter, но роль пользователя читается неблокирующим запросом
+@Component
+@RequiredArgsConstructor
+public class JwtAuthenticationWebFilter implements WebFilter {
+    private final JwtUtil jwtUtil;
+    private final ReactiveTaskReadRepository repository;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String token = getToken(exchange);
+        Claims claims = token != null ? jwtUtil.parseClaims(token) : null;
+        if (claims == null || claims.getId() == null) {
+            return reject(exchange);
+        }
+
+        Long userId = claims.get("userId", Long.class);
+        return repository.findUserRole(userId, claims.getId())
+                .flatMap(role -> {
+                    exchange.getAttributes().put(Caller.ATTRIBUTE, new Caller(userId, role));
+                    return chain.filter(exchange);
+                })
+                .switchIfEmpty(Mono.defer(() -> reject(exchange)));
+    }
+
+    private String getToken(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        return exchange.getResponse().setComplete();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.taskPro.reactive;
+
+import com.example.taskPro.security.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Нагрузочный прогон: 10k одновременных клиентов читают /tasks/executor/{id}.
+// Требует запущенной БД и поднятого лимита дескрипторов (ulimit -n 65536). Запуск: ./gradlew :reactive:benchmark
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ConnectionScalabilityBenchmark {
+	private static final int CLIENTS = 10_000;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		userId = databaseClient.sql("INSERT INTO users (email, password, role) VALUES (:email, 'x', 'USER') RETURNING id")
+				.bind("email", "reactive-bench-" + UUID.randomUUID() + "@example.com")
+				.map((row, metadata) -> row.get("id", Long.class))
+				.one()
+				.block();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		databaseClient.sql("DELETE FROM users WHERE id = :id").bind("id", userId).then().block();
+	}
+
+	@Test
+	void servesTenThousandConcurrentClients() {
+		String token = jwtUtil.generateToken(userId, "reactive-bench@example.com");
+		ConnectionProvider provider = ConnectionProvider.builder("bench")
+				.maxConnections(CLIENTS)
+				.pendingAcquireMaxCount(-1)
+				.build();
+		HttpClient client = HttpClient.create(provider)
+				.baseUrl("http://localhost:" + port)
+				.headers(headers -> headers.set("Authorization", "Bearer " + token))
+				.responseTimeout(Duration.ofSeconds(60));
+
+		int threadsBefore = Thread.activeCount();
+		AtomicInteger ok = new AtomicInteger();
+		long[] latencies = new long[CLIENTS];
+		long start = System.nanoTime();
+
+		Flux.range(0, CLIENTS)
+				.flatMap(i -> {
+					long requestStart = System.nanoTime();
+					return client.get()
+							.uri("/tasks/executor/" + userId)
+							.responseSingle((response, body) -> body.asString().defaultIfEmpty("")
+									.map(ignored -> response.status().code()))
+							.doOnNext(status -> {
+								latencies[i] = System.nanoTime() - requestStart;
+								if (status == 200) {
+									ok.incrementAndGet();
+								}
+							});
+				}, CLIENTS)
+				.blockLast(Duration.ofMinutes(5));
+
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+		int threadsAfter = Thread.activeCount();
+		Arrays.sort(latencies);
+		System.out.printf("Клиентов: %d, успешных: %d, всего %d мс, p50=%d мс, p99=%d мс, потоков: %d -> %d%n",
+				CLIENTS, ok.get(), elapsedMs,
+				latencies[CLIENTS / 2] / 1_000_000, latencies[CLIENTS * 99 / 100] / 1_000_000,
+				threadsBefore, threadsAfter);
+
+		provider.disposeLater().block();
+		assertEquals(CLIENTS, ok.get());
+	}
+}
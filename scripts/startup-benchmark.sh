@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Замер времени до первого ответа и RSS процесса для обычного запуска и prod-профиля с AppCDS.
+# Требуется запущенная БД (docker compose up -d) и собранные артефакты:
+#   ./gradlew bootJar cdsArchive
+# Использование: scripts/startup-benchmark.sh [число прогонов]
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RUNS="${1:-3}"
+PORT="${PORT:-8080}"
+JAR="$(ls "$ROOT"/build/libs/*.jar | grep -v -- '-plain.jar' | head -n 1)"
+CDS_DIR="$ROOT/build/cds"
+MAIN_CLASS="com.example.taskPro.TaskProApplication"
+
+now_ms() {
+    date +%s%3N
+}
+
+rss_kb() {
+    awk '/VmRSS/ {print $2}' "/proc/$1/status"
+}
+
+measure() {
+    local label="$1"
+    shift
+    local start pid ready rss
+    start="$(now_ms)"
+    "$@" --server.port="$PORT" > /dev/null 2>&1 &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' -X POST "http://localhost:$PORT/auth/login" \
+            -H 'Content-Type: application/json' -d '{}')" != "000" ]; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$label: приложение завершилось до первого ответа" >&2
+            return 1
+        fi
+        sleep 0.05
+    done
+    ready="$(now_ms)"
+    rss="$(rss_kb "$pid")"
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+    printf '%-12s time-to-first-request=%6d ms  rss=%7d KB\n' "$label" "$((ready - start))" "$rss"
+}
+
+for ((i = 1; i <= RUNS; i++)); do
+    measure "default" java -jar "$JAR"
+    (cd "$CDS_DIR" && measure "prod+cds" java -XX:SharedArchiveFile=app.jsa -Xshare:auto \
+        -Dspring.profiles.active=prod @classpath.args "$MAIN_CLASS")
+done
@@ -1 +1,4 @@
 rootProject.name = "TaskPro "
+
+// Необязательный реактивный сервис чтения (WebFlux + R2DBC)
+include("reactive")
@@ -0,0 +1,20 @@
+package com.example.taskPro.config;
+
+import com.example.taskPro.logging.CountingAsyncAppender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LoggingConfig {
+
+    // Аппендер создаётся Logback до контекста Spring, поэтому счётчик читается из статического поля
+    @Bean
+    public MeterBinder droppedLogEventsMetrics() {
+        return registry -> FunctionCounter.builder("taskpro.logging.dropped", CountingAsyncAppender.class,
+                        type -> CountingAsyncAppender.getDroppedCount())
+                .description("Log events dropped by the async appender")
+                .register(registry);
+    }
+}
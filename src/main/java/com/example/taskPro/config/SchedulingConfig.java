@@ -0,0 +1,13 @@
+package com.example.taskPro.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// В режиме снимка (taskpro.snapshot.mode, см. SnapshotRunner) фоновые задачи не запускаются:
+// архивация, массовое удаление и рассылка работали бы по наполовину загруженным таблицам
+@Configuration
+@EnableScheduling
+@ConditionalOnExpression("'${taskpro.snapshot.mode:}'.isEmpty()")
+public class SchedulingConfig {
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -15,6 +16,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
@@ -29,10 +31,17 @@ public class SecurityConfig {
         return http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                // Запрос без действующего токена (нет, просрочен или отозван) — 401, нехватка прав — 403
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/auth/logout").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/auth/revoke").hasAuthority("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/tasks").hasAuthority("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/tasks/auto-assign").hasAuthority("ADMIN")
+                        .requestMatchers("/tasks/bulk-delete/**").hasAuthority("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/tasks/claim-next").hasAuthority("USER")
                         .requestMatchers(HttpMethod.PUT, "/tasks/{id}").hasAuthority("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/tasks/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/tasks/{id}").hasAuthority("ADMIN")
@@ -40,7 +49,11 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PATCH, "/tasks/{id}/priority").hasAuthority("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/tasks/{id}/comments").authenticated()
                         .requestMatchers(HttpMethod.GET, "/tasks/{id}/comments").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/tasks/{id}/attachments").authenticated()
                         .requestMatchers(HttpMethod.PATCH, "/tasks/{id}/assign").hasAuthority("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/analytics/**").hasAuthority("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**",
                                 "/v3/api-docs.yaml", "/swagger-ui.html").permitAll()
                 )
@@ -0,0 +1,35 @@
+package com.example.taskPro.config;
+
+import com.example.taskPro.security.JwtFilter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+import java.util.Set;
+
+@Configuration
+public class StartupConfig {
+    private static final Set<Class<?>> EAGER_TYPES = Set.of(
+            FlywayMigrationInitializer.class, SecurityFilterChain.class, JwtFilter.class, SmartLifecycle.class);
+
+    // При spring.main.lazy-initialization=true бины с @Scheduled и жизненным циклом
+    // никогда бы не создались, а миграции не применились бы до первого запроса
+    @Bean
+    public static LazyInitializationExcludeFilter eagerInitializationFilter() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (EAGER_TYPES.stream().anyMatch(type -> type.isAssignableFrom(beanType))
+                || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return Arrays.stream(ReflectionUtils.getUniqueDeclaredMethods(beanType))
+                .anyMatch(method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.taskPro.controller;
+
+import com.example.taskPro.dto.analyticsDto.CycleTimeReportDto;
+import com.example.taskPro.service.AnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Analytics API", description = "Аналитика по выполнению задач")
+@RestController
+@RequestMapping("/analytics")
+@RequiredArgsConstructor
+public class AnalyticsController {
+    private final AnalyticsService analyticsService;
+
+    @Operation(summary = "Время выполнения задач",
+            description = "Процентили (мс) времени от создания (leadTime) и от начала работы (cycleTime) "
+                    + "до завершения задачи по исполнителям и приоритетам. Только для администратора.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статистика успешно получена"),
+            @ApiResponse(responseCode = "400", description = "Некорректный приоритет"),
+            @ApiResponse(responseCode = "403", description = "Нет прав для просмотра аналитики")
+    })
+    @GetMapping("/cycle-time")
+    public ResponseEntity<CycleTimeReportDto> getCycleTime(
+            @RequestParam(required = false) Long executorId,
+            @RequestParam(required = false) String priority) {
+        return ResponseEntity.ok(analyticsService.getCycleTime(executorId, priority));
+    }
+}
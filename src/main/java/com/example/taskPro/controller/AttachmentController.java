@@ -0,0 +1,171 @@
+package com.example.taskPro.controller;
+
+import com.example.taskPro.model.TaskAttachment;
+import com.example.taskPro.service.AttachmentService;
+import com.example.taskPro.service.ByteRange;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.List;
+
+@Tag(name = "Attachment API", description = "Вложения задач")
+@RestController
+@RequestMapping("/tasks/{taskId}/attachments")
+@RequiredArgsConstructor
+public class AttachmentController {
+    // Атрибуты, по которым Tomcat (NIO) отдаёт файл системным вызовом sendfile, минуя память JVM
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final AttachmentService attachmentService;
+
+    @Operation(summary = "Загрузить вложение",
+            description = "Тело запроса — содержимое файла как есть (не multipart), тип берётся из Content-Type. "
+                    + "Доступно администратору и исполнителю задачи.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Вложение сохранено"),
+            @ApiResponse(responseCode = "403", description = "Нет прав на задачу"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена"),
+            @ApiResponse(responseCode = "413", description = "Файл слишком большой")
+    })
+    @PostMapping
+    public ResponseEntity<TaskAttachment> upload(
+            @PathVariable Long taskId,
+            @RequestParam String fileName,
+            HttpServletRequest request,
+            Authentication authentication) throws IOException {
+        TaskAttachment attachment = attachmentService.upload(taskId, fileName, request.getContentType(),
+                request.getInputStream(), authentication);
+        return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+    }
+
+    @Operation(summary = "Получить вложения задачи", description = "Возвращает метаданные всех вложений задачи.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Вложения получены"),
+            @ApiResponse(responseCode = "403", description = "Нет прав на задачу"),
+            @ApiResponse(responseCode = "404", description = "Задача не найдена")
+    })
+    @GetMapping
+    public ResponseEntity<List<TaskAttachment>> getAttachments(@PathVariable Long taskId,
+                                                               Authentication authentication) {
+        return ResponseEntity.ok(attachmentService.getAttachments(taskId, authentication));
+    }
+
+    @Operation(summary = "Скачать вложение",
+            description = "Поддерживает Range (один диапазон), If-Range, If-None-Match и If-Modified-Since.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Файл целиком"),
+            @ApiResponse(responseCode = "206", description = "Запрошенный диапазон"),
+            @ApiResponse(responseCode = "304", description = "Файл не изменился"),
+            @ApiResponse(responseCode = "403", description = "Нет прав на задачу"),
+            @ApiResponse(responseCode = "404", description = "Задача или вложение не найдены"),
+            @ApiResponse(responseCode = "416", description = "Диапазон за пределами файла")
+    })
+    @GetMapping("/{attachmentId}")
+    public void download(@PathVariable Long taskId, @PathVariable Long attachmentId,
+                         HttpServletRequest request, HttpServletResponse response,
+                         Authentication authentication) throws IOException {
+        TaskAttachment attachment = attachmentService.getAttachment(taskId, attachmentId, authentication);
+        String etag = "\"" + attachment.getSha256() + "\"";
+        // Заголовки дат имеют точность до секунды
+        long lastModified = attachment.getCreatedAt().atZone(ZoneId.systemDefault()).toEpochSecond() * 1000;
+        long size = attachment.getSize();
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        ByteRange range = null;
+        if (rangeApplies(request, etag, lastModified)) {
+            try {
+                range = ByteRange.parse(request.getHeader(HttpHeaders.RANGE), size);
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+        }
+
+        response.setContentType(attachment.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8).build().toString());
+        long start = 0;
+        long length = size;
+        if (range != null) {
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, range.contentRange(size));
+            start = range.start();
+            length = range.length();
+        }
+        response.setContentLengthLong(length);
+        if (length == 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+        transfer(request, response, attachmentService.resolveFile(attachment), start, length);
+    }
+
+    // If-Range: диапазон отдаётся, только если клиент докачивает ту же версию файла, иначе — файл целиком
+    private boolean rangeApplies(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // При поддержке sendfile файл отдаёт сам Tomcat после выхода из контроллера; иначе FileChannel.transferTo
+    // передаёт данные в поток ответа без копирования через массивы в куче
+    private void transfer(HttpServletRequest request, HttpServletResponse response, Path file,
+                          long start, long length) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, out);
+                if (transferred <= 0) {
+                    throw new IOException("Файл вложения короче ожидаемого: " + file);
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+        }
+    }
+}
@@ -7,10 +7,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @Tag(name = "Auth API", description = "Регистрация и аутентификация пользователей")
@@ -40,4 +45,27 @@ public class AuthController {
     public ResponseEntity<String> login(@RequestBody AuthRequestDto request) {
         return ResponseEntity.ok(authService.login(request));
     }
+
+    @Operation(summary = "Выход из системы", description = "Отзывает текущий JWT-токен.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Токен отозван"),
+            @ApiResponse(responseCode = "401", description = "Некорректный токен")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        authService.logout(authorization.replaceFirst("^Bearer ", ""));
+        return ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Отозвать токен", description = "Администратор отзывает токен по его идентификатору (jti).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Токен отозван"),
+            @ApiResponse(responseCode = "403", description = "Недостаточно прав")
+    })
+    @PostMapping("/revoke")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<Void> revoke(@RequestParam String jti, Authentication authentication) {
+        authService.revokeToken(jti, authentication);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
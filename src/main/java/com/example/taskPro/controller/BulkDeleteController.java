@@ -0,0 +1,52 @@
+package com.example.taskPro.controller;
+
+import com.example.taskPro.dto.taskDto.BulkDeleteRequestDto;
+import com.example.taskPro.model.BulkDeleteJob;
+import com.example.taskPro.service.BulkDeleteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "Bulk Delete API", description = "Фоновое массовое удаление задач")
+@RestController
+@RequestMapping("/tasks/bulk-delete")
+@RequiredArgsConstructor
+public class BulkDeleteController {
+    private final BulkDeleteService bulkDeleteService;
+
+    @Operation(summary = "Создать задание массового удаления",
+            description = "Удаляет задачи автора (authorId) и/или завершённые раньше completedBefore вместе "
+                    + "с комментариями, включая архивные. Удаление идёт в фоне небольшими пачками: сначала "
+                    + "задачи, затем архив; прогресс доступен по id задания.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Задание создано"),
+            @ApiResponse(responseCode = "400", description = "Не указан ни один критерий"),
+            @ApiResponse(responseCode = "403", description = "Недостаточно прав")
+    })
+    @PostMapping
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<BulkDeleteJob> createJob(@RequestBody BulkDeleteRequestDto request,
+                                                   Authentication authentication) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(bulkDeleteService.createJob(request, authentication));
+    }
+
+    @Operation(summary = "Статус задания массового удаления",
+            description = "Возвращает состояние задания и число уже удалённых задач.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Статус получен"),
+            @ApiResponse(responseCode = "403", description = "Недостаточно прав"),
+            @ApiResponse(responseCode = "404", description = "Задание не найдено")
+    })
+    @GetMapping("/{jobId}")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<BulkDeleteJob> getJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(bulkDeleteService.getJob(jobId));
+    }
+}
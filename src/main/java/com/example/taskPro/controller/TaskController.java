@@ -1,19 +1,32 @@
 package com.example.taskPro.controller;
 
+import com.example.taskPro.dto.taskDto.AutoAssignResultDto;
+import com.example.taskPro.dto.taskDto.TaskChangesDto;
+import com.example.taskPro.dto.taskDto.TaskExportFormat;
 import com.example.taskPro.model.Task;
+import com.example.taskPro.service.AutoAssignService;
+import com.example.taskPro.service.TaskExportService;
 import com.example.taskPro.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
 @Tag(name = "Task API",
         description = "Управление задачами (создание, редактирование, удаление, "
                 + "назначение исполнителя и изменение статуса)")
@@ -22,22 +35,107 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class TaskController {
     private final TaskService taskService;
+    private final AutoAssignService autoAssignService;
+    private final TaskExportService taskExportService;
 
     @Operation(summary = "Получить список задач",
-            description = "Фильтрация по автору или исполнителю, поддерживается пагинация.")
+            description = "Фильтрация по автору или исполнителю, поддерживается пагинация. "
+                    + "Архивные задачи возвращаются только при includeArchived=true. "
+                    + "Параметр fields (например, fields=id,title,status) ограничивает набор возвращаемых полей.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список задач успешно получен"),
             @ApiResponse(responseCode = "400", description = "Некорректные параметры запроса"),
             @ApiResponse(responseCode = "403", description = "Нет доступа к ресурсу")
     })
     @GetMapping("/filter")
-    public ResponseEntity<Page<Task>> getTasksByAuthorOrExecutorId(
+    public ResponseEntity<Page<?>> getTasksByAuthorOrExecutorId(
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) Long executorId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTaskFieldsFiltered(
+                    fields, authorId, executorId, includeArchived, page, size));
+        }
+        return ResponseEntity.ok(taskService.getTasksFiltered(authorId, executorId, includeArchived, page, size));
+    }
+
+    @Operation(summary = "Просроченные задачи",
+            description = "Незавершённые задачи, срок которых уже наступил, по возрастанию срока. "
+                    + "Можно ограничить исполнителем через executorId.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список задач успешно получен")
+    })
+    @GetMapping("/overdue")
+    public ResponseEntity<Page<Task>> getOverdueTasks(
+            @RequestParam(required = false) Long executorId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(taskService.getOverdueTasks(executorId, page, size));
+    }
+
+    @Operation(summary = "Поиск задач",
+            description = "Комбинируемые фильтры: status и priority (несколько значений через запятую), "
+                    + "authorId, executorId, unassigned=true — только без исполнителя. "
+                    + "Сортировка sort=id, sort=priority (сначала HIGH) или sort=activity (сначала недавно "
+                    + "прокомментированные), поддерживается пагинация.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список задач успешно получен"),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры поиска")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<Page<Task>> searchTasks(
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) List<String> priority,
             @RequestParam(required = false) Long authorId,
             @RequestParam(required = false) Long executorId,
+            @RequestParam(defaultValue = "false") boolean unassigned,
+            @RequestParam(defaultValue = "id") String sort,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        return ResponseEntity.ok(taskService.getTasksFiltered(authorId, executorId, page, size));
+        return ResponseEntity.ok(taskService.searchTasks(
+                status, priority, authorId, executorId, unassigned, sort, page, size));
+    }
+
+    @Operation(summary = "Выгрузить задачи",
+            description = "Потоково выгружает все задачи, подходящие под фильтр, в формате CSV или NDJSON. "
+                    + "Если клиент поддерживает gzip, ответ сжимается. Доступно только администратору.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Выгрузка сформирована"),
+            @ApiResponse(responseCode = "400", description = "Некорректный формат выгрузки"),
+            @ApiResponse(responseCode = "403", description = "Недостаточно прав")
+    })
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public void exportTasks(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) Long executorId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        TaskExportFormat exportFormat = TaskExportFormat.parse(format);
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"tasks." + exportFormat.getExtension() + "\"");
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        OutputStream out = gzip
+                ? new GZIPOutputStream(response.getOutputStream(), 64 * 1024)
+                : response.getOutputStream();
+        try (out) {
+            taskExportService.exportTasks(exportFormat, authorId, executorId, out);
+        }
     }
 
     @Operation(summary = "Создать задачу", description = "Администратор создаёт новую задачу.")
@@ -66,6 +164,22 @@ public class TaskController {
         return ResponseEntity.ok(taskService.updateTaskStatus(id, status, authentication));
     }
 
+    @PostMapping("/claim-next")
+    @PreAuthorize("hasAuthority('USER')")
+    @Operation(summary = "Взять следующую задачу",
+            description = "Атомарно назначает текущему пользователю самую приоритетную свободную задачу "
+                    + "в статусе PENDING и переводит её в IN_PROGRESS.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задача назначена"),
+            @ApiResponse(responseCode = "204", description = "Свободных задач нет"),
+            @ApiResponse(responseCode = "403", description = "Недостаточно прав")
+    })
+    public ResponseEntity<Task> claimNextTask(Authentication authentication) {
+        return taskService.claimNextTask(authentication)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
     @PatchMapping("/{id}/priority")
     @PreAuthorize("hasAuthority('ADMIN')")
     @Operation(summary = "Изменить приоритет задачи", description = "Admin может изменять приоритет любой задачи.")
@@ -101,11 +215,17 @@ public class TaskController {
     })
     @GetMapping("/author/{authorId}")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public ResponseEntity<Page<Task>> getTasksByAuthor(
+    public ResponseEntity<Page<?>> getTasksByAuthor(
             @PathVariable Long authorId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(taskService.getTasksByAuthor(authorId, page, size));
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTaskFieldsFiltered(
+                    fields, authorId, null, includeArchived, page, size));
+        }
+        return ResponseEntity.ok(taskService.getTasksByAuthor(authorId, includeArchived, page, size));
     }
 
     @Operation(summary = "Получить задачи исполнителя",
@@ -116,11 +236,35 @@ public class TaskController {
     })
     @GetMapping("/executor/{executorId}")
     @PreAuthorize("hasAuthority('USER')")
-    public ResponseEntity<Page<Task>> getTasksByExecutor(
+    public ResponseEntity<Page<?>> getTasksByExecutor(
             @PathVariable Long executorId,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String fields,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(taskService.getTasksByExecutor(executorId, page, size));
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTaskFieldsFiltered(
+                    fields, null, executorId, includeArchived, page, size));
+        }
+        return ResponseEntity.ok(taskService.getTasksByExecutor(executorId, includeArchived, page, size));
+    }
+
+    @Operation(summary = "Получить изменения задач",
+            description = "Возвращает задачи, созданные или изменённые после токена since, "
+                    + "идентификаторы удалённых или снятых с исполнителя задач и новый токен для следующей синхронизации. "
+                    + "Пользователь получает только свои задачи, администратор — любые.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Изменения успешно получены"),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры запроса"),
+            @ApiResponse(responseCode = "403", description = "Запрошены чужие задачи")
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<TaskChangesDto> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Long executorId,
+            @RequestParam(defaultValue = "500") int limit,
+            Authentication authentication) {
+        return ResponseEntity.ok(taskService.getChangesSince(since, executorId, limit, authentication));
     }
 
     @PatchMapping("/{id}/assign")
@@ -130,6 +274,19 @@ public class TaskController {
         return ResponseEntity.ok(taskService.assignExecutor(id, executorId, authentication));
     }
 
+    @Operation(summary = "Автоматически распределить задачи",
+            description = "Распределяет все неназначенные задачи между пользователями с ролью USER "
+                    + "с учётом приоритета задач и текущей нагрузки исполнителей.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Задачи распределены"),
+            @ApiResponse(responseCode = "403", description = "Недостаточно прав")
+    })
+    @PostMapping("/auto-assign")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<AutoAssignResultDto> autoAssign(Authentication authentication) {
+        return ResponseEntity.ok(autoAssignService.autoAssign(authentication));
+    }
+
     @PostMapping("/{id}/comments")
     public ResponseEntity<Task> addComment(@PathVariable Long id,
                                            @RequestParam String comment, Authentication authentication) {
@@ -0,0 +1,13 @@
+package com.example.taskPro.dto.analyticsDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CycleTimeReportDto {
+    private List<CycleTimeStatsDto> groups;
+    private CycleTimeStatsDto total;
+}
@@ -0,0 +1,15 @@
+package com.example.taskPro.dto.analyticsDto;
+
+import com.example.taskPro.model.TaskPriority;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// executorId = 0 — задачи без исполнителя; executorId и priority равны null в строке, объединяющей все группы
+@Getter
+@AllArgsConstructor
+public class CycleTimeStatsDto {
+    private Long executorId;
+    private TaskPriority priority;
+    private DurationStatsDto leadTime;
+    private DurationStatsDto cycleTime;
+}
@@ -0,0 +1,21 @@
+package com.example.taskPro.dto.analyticsDto;
+
+import com.example.taskPro.service.CycleTimeHistogram;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Процентили в миллисекундах; при count = 0 значения null
+@Getter
+@AllArgsConstructor
+public class DurationStatsDto {
+    private long count;
+    private Long p50;
+    private Long p90;
+    private Long p99;
+    private Long max;
+
+    public static DurationStatsDto of(CycleTimeHistogram histogram) {
+        return new DurationStatsDto(histogram.getCount(), histogram.percentile(50), histogram.percentile(90),
+                histogram.percentile(99), histogram.percentile(100));
+    }
+}
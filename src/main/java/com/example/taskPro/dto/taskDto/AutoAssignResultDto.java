@@ -0,0 +1,11 @@
+package com.example.taskPro.dto.taskDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class AutoAssignResultDto {
+    private long assignedTasks;
+    private int executors;
+}
\ No newline at end of file
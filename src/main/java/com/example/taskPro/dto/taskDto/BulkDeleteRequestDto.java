@@ -0,0 +1,14 @@
+package com.example.taskPro.dto.taskDto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Хотя бы один критерий обязателен; при обоих удаляются завершённые задачи автора
+@Getter
+@Setter
+public class BulkDeleteRequestDto {
+    private Long authorId;
+    private LocalDateTime completedBefore;
+}
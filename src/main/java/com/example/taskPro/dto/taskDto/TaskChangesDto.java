@@ -0,0 +1,16 @@
+package com.example.taskPro.dto.taskDto;
+
+import com.example.taskPro.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TaskChangesDto {
+    private List<Task> updated;
+    private List<Long> deleted;
+    private long nextToken;
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package com.example.taskPro.dto.taskDto;
+
+import com.example.taskPro.exception.InvalidExportFormatException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum TaskExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    public static TaskExportFormat parse(String format) {
+        try {
+            return valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidExportFormatException("Некорректный формат выгрузки: " + format);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.taskPro.dto.taskDto;
+
+import com.example.taskPro.exception.InvalidTaskFieldException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Поля задачи, которые клиент может запросить через параметр fields, и соответствующие им SQL-выражения
+@Getter
+@RequiredArgsConstructor
+public enum TaskField {
+    ID("id", "t.id", false),
+    TITLE("title", "t.title", false),
+    DESCRIPTION("description", "t.description", false),
+    STATUS("status", "t.status", false),
+    PRIORITY("priority", "t.priority", false),
+    AUTHOR_ID("authorId", "t.author_id", false),
+    EXECUTOR_ID("executorId", "t.executor_id", false),
+    EXECUTOR_EMAIL("executorEmail", "e.email", true),
+    CREATED_AT("createdAt", "t.created_at", false),
+    UPDATED_AT("updatedAt", "t.updated_at", false),
+    COMMENT_COUNT("commentCount", "t.comment_count", false),
+    LAST_COMMENT_AT("lastCommentAt", "t.last_comment_at", false),
+    DUE_AT("dueAt", "t.due_at", false),
+    OVERDUE_AT("overdueAt", "t.overdue_at", false),
+    IN_PROGRESS_AT("inProgressAt", "t.in_progress_at", false),
+    COMPLETED_AT("completedAt", "t.completed_at", false);
+
+    private static final Map<String, TaskField> BY_NAME = Arrays.stream(values())
+            .collect(Collectors.toMap(TaskField::getName, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+
+    private final String name;
+    private final String column;
+    private final boolean executorJoinRequired;
+
+    public static Set<TaskField> parse(String fields) {
+        Set<TaskField> result = new LinkedHashSet<>();
+        for (String raw : fields.split(",")) {
+            String name = raw.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            TaskField field = BY_NAME.get(name);
+            if (field == null) {
+                throw new InvalidTaskFieldException("Неизвестное поле задачи: " + name
+                        + ". Допустимые поля: " + String.join(", ", BY_NAME.keySet()));
+            }
+            result.add(field);
+        }
+        if (result.isEmpty()) {
+            throw new InvalidTaskFieldException("Параметр fields не содержит ни одного поля");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.taskPro.dto.taskDto;
+
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Set;
+
+// Условия поиска задач; пустые наборы и null означают отсутствие фильтра
+@Getter
+@Builder
+public class TaskSearchCriteria {
+    @Builder.Default
+    private Set<TaskStatus> statuses = Set.of();
+    @Builder.Default
+    private Set<TaskPriority> priorities = Set.of();
+    private Long authorId;
+    private Long executorId;
+    private boolean unassignedOnly;
+    @Builder.Default
+    private TaskSort sort = TaskSort.ID;
+}
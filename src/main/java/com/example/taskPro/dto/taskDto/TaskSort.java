@@ -0,0 +1,26 @@
+package com.example.taskPro.dto.taskDto;
+
+import com.example.taskPro.exception.InvalidTaskQueryException;
+import com.example.taskPro.repository.TaskRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Порядок выдачи в поиске задач. Выражения совпадают с индексами из V9__task_search_indexes.sql,
+// ACTIVITY — с idx_tasks_last_comment_at из V6: сначала недавно прокомментированные, без комментариев в конце
+@Getter
+@RequiredArgsConstructor
+public enum TaskSort {
+    ID("id"),
+    PRIORITY(TaskRepository.PRIORITY_RANK + ", id"),
+    ACTIVITY("last_comment_at DESC NULLS LAST, id");
+
+    private final String orderBy;
+
+    public static TaskSort parse(String sort) {
+        try {
+            return valueOf(sort.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTaskQueryException("Некорректная сортировка задач: " + sort);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.taskPro.event;
+
+import com.example.taskPro.invalidation.EntityType;
+
+// Изменение сущности, после коммита рассылается другим узлам через InvalidationBus
+public record EntityChangedEvent(String key) {
+
+    public static EntityChangedEvent of(EntityType type, Object id) {
+        return new EntityChangedEvent(type.key(id));
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.taskPro.event;
+
+import java.time.LocalDateTime;
+
+// Срок задачи поставлен, перенесён или снят (dueAt == null: задача завершена, удалена или срок убран)
+public record TaskDeadlineChangedEvent(Long taskId, LocalDateTime dueAt) {
+}
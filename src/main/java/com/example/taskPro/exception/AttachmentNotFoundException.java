@@ -0,0 +1,7 @@
+package com.example.taskPro.exception;
+
+public class AttachmentNotFoundException extends RuntimeException {
+    public AttachmentNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.taskPro.exception;
+
+public class AttachmentTooLargeException extends RuntimeException {
+    public AttachmentTooLargeException(String message) {
+        super(message);
+    }
+}
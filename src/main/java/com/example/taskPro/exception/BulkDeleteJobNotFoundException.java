@@ -0,0 +1,7 @@
+package com.example.taskPro.exception;
+
+public class BulkDeleteJobNotFoundException extends RuntimeException {
+    public BulkDeleteJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.taskPro.exception;
 
+import com.example.taskPro.logging.LogSampler;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -7,12 +8,15 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
+    // Ошибки клиента (4xx) при массовых некорректных запросах не должны забивать лог
+    private final LogSampler clientErrorSampler = new LogSampler(Duration.ofSeconds(1), 50);
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, String>> handleValidationException(MethodArgumentNotValidException ex) {
@@ -24,43 +28,79 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(InvalidTaskPriorityException.class)
     public ResponseEntity<String> handleInvalidTaskPriorityException(InvalidTaskPriorityException ex) {
-        log.error("Ошибка при изменении приоритета задачи: {}", ex.getMessage());
+        logClientError("Ошибка при изменении приоритета задачи", ex);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
     @ExceptionHandler(InvalidUserRoleException.class)
     public ResponseEntity<String> handleInvalidUserRoleException(InvalidUserRoleException ex) {
-        log.error("Ошибка выбора роли пользователя: {}", ex.getMessage());
+        logClientError("Ошибка выбора роли пользователя", ex);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
     @ExceptionHandler(UserAlreadyExistsException.class)
     public ResponseEntity<String> handleUserAlreadyExistsException(UserAlreadyExistsException ex) {
-        log.error("Ошибка регистрации: {}", ex.getMessage());
+        logClientError("Ошибка регистрации", ex);
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
     }
 
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<String> handleUserNotFoundException(UserNotFoundException ex) {
-        log.error("Ошибка: {}", ex.getMessage());
+        logClientError("Ошибка", ex);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
     @ExceptionHandler(TaskNotFoundException.class)
     public ResponseEntity<String> handleTaskNotFoundException(TaskNotFoundException ex) {
-        log.error("Ошибка: {}", ex.getMessage());
+        logClientError("Ошибка", ex);
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    @ExceptionHandler(BulkDeleteJobNotFoundException.class)
+    public ResponseEntity<String> handleBulkDeleteJobNotFoundException(BulkDeleteJobNotFoundException ex) {
+        logClientError("Ошибка", ex);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(AttachmentNotFoundException.class)
+    public ResponseEntity<String> handleAttachmentNotFoundException(AttachmentNotFoundException ex) {
+        logClientError("Ошибка", ex);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(AttachmentTooLargeException.class)
+    public ResponseEntity<String> handleAttachmentTooLargeException(AttachmentTooLargeException ex) {
+        logClientError("Ошибка загрузки вложения", ex);
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(ex.getMessage());
+    }
+
     @ExceptionHandler(UnauthorizedActionException.class)
     public ResponseEntity<String> handleUnauthorizedActionException(UnauthorizedActionException ex) {
-        log.error("Ошибка доступа: {}", ex.getMessage());
+        logClientError("Ошибка доступа", ex);
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ex.getMessage());
     }
 
     @ExceptionHandler(InvalidTaskStatusException.class)
     public ResponseEntity<String> handleInvalidTaskStatusException(InvalidTaskStatusException ex) {
-        log.error("Ошибка статуса задачи: {}", ex.getMessage());
+        logClientError("Ошибка статуса задачи", ex);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidTaskFieldException.class)
+    public ResponseEntity<String> handleInvalidTaskFieldException(InvalidTaskFieldException ex) {
+        logClientError("Ошибка выбора полей задачи", ex);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidExportFormatException.class)
+    public ResponseEntity<String> handleInvalidExportFormatException(InvalidExportFormatException ex) {
+        logClientError("Ошибка выгрузки задач", ex);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidTaskQueryException.class)
+    public ResponseEntity<String> handleInvalidTaskQueryException(InvalidTaskQueryException ex) {
+        logClientError("Ошибка параметров поиска задач", ex);
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
@@ -71,4 +111,11 @@ public class GlobalExceptionHandler {
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Внутренняя ошибка сервера: " + ex.getMessage());
     }
+
+    private void logClientError(String message, RuntimeException ex) {
+        long suppressed = clientErrorSampler.sample();
+        if (suppressed >= 0) {
+            log.error("{}: {}, пропущено похожих сообщений: {}", message, ex.getMessage(), suppressed);
+        }
+    }
 }
\ No newline at end of file
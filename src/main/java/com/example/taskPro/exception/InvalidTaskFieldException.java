@@ -0,0 +1,7 @@
+package com.example.taskPro.exception;
+
+public class InvalidTaskFieldException extends RuntimeException {
+    public InvalidTaskFieldException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.taskPro.exception;
+
+public class InvalidTaskQueryException extends RuntimeException {
+    public InvalidTaskQueryException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.taskPro.invalidation;
+
+// Виды сущностей, изменения которых рассылаются по шине инвалидации. Ключ имеет вид "TASK:42"
+public enum EntityType {
+    TASK,
+    USER,
+    // Комментарии и вложения одной задачи: ключ строится по id задачи
+    TASK_COMMENTS,
+    TASK_ATTACHMENTS,
+    TOKEN;
+
+    public String key(Object id) {
+        return name() + ":" + id;
+    }
+
+    public boolean matches(String key) {
+        return key.startsWith(name() + ":");
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.taskPro.invalidation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Общая для всей JVM шина: несколько "узлов" в одном процессе (тесты) видят сообщения друг друга
+@Component
+@ConditionalOnProperty(name = "taskpro.invalidation.transport", havingValue = "memory")
+public class InMemoryInvalidationTransport implements InvalidationTransport {
+    private static final List<Consumer<InvalidationMessage>> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+
+    private final List<Consumer<InvalidationMessage>> ownSubscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        SUBSCRIBERS.forEach(subscriber -> subscriber.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> subscriber) {
+        ownSubscribers.add(subscriber);
+        SUBSCRIBERS.add(subscriber);
+    }
+
+    public void close() {
+        SUBSCRIBERS.removeAll(ownSubscribers);
+        ownSubscribers.clear();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.taskPro.invalidation;
+
+import com.example.taskPro.event.EntityChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Рассылка инвалидаций кэшей между узлами. Ключи изменённых сущностей публикуются только после коммита,
+// копятся в множествах и уходят пачками раз в flush-interval-ms: десять изменений одной задачи
+// за интервал превращаются в один ключ и одно сообщение, а не в десять
+@Component
+@Slf4j
+public class InvalidationBus {
+    // Сбросить всё: приходит после потери соединения транспорта, когда часть сообщений могла пропасть
+    public static final String ALL = "*";
+
+    @Getter
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvalidationTransport transport;
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    private final Set<String> outbound = ConcurrentHashMap.newKeySet();
+    private final Set<String> inbound = ConcurrentHashMap.newKeySet();
+    private final Counter publishedCounter;
+    private final Counter appliedCounter;
+
+    @Value("${taskpro.invalidation.max-batch-size:500}")
+    private int maxBatchSize = 500;
+
+    public InvalidationBus(InvalidationTransport transport, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.publishedCounter = meterRegistry.counter("taskpro.invalidation.published");
+        this.appliedCounter = meterRegistry.counter("taskpro.invalidation.applied");
+        transport.subscribe(this::receive);
+    }
+
+    public void addListener(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    // Вне транзакции событие обрабатывается сразу. Локальные кэши сбрасываются немедленно,
+    // чтобы узел не отдавал устаревшие данные даже в пределах интервала рассылки
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChanged(EntityChangedEvent event) {
+        notifyListeners(Set.of(event.key()));
+        outbound.add(event.key());
+    }
+
+    @Scheduled(fixedDelayString = "${taskpro.invalidation.flush-interval-ms:50}")
+    public void flush() {
+        Set<String> keys;
+        while (!(keys = drain(outbound)).isEmpty()) {
+            try {
+                transport.publish(new InvalidationMessage(nodeId, keys));
+                publishedCounter.increment(keys.size());
+            } catch (RuntimeException e) {
+                // Ключи возвращаются в очередь и уйдут при следующей попытке
+                outbound.addAll(keys);
+                log.warn("Не удалось разослать инвалидацию ({} ключей): {}", keys.size(), e.getMessage());
+                break;
+            }
+        }
+        while (!(keys = drain(inbound)).isEmpty()) {
+            notifyListeners(keys.contains(ALL) ? Set.of(ALL) : keys);
+            appliedCounter.increment(keys.size());
+        }
+    }
+
+    // Вызывается потоком транспорта: здесь только постановка в очередь, применение — в flush()
+    private void receive(InvalidationMessage message) {
+        if (nodeId.equals(message.sourceNodeId())) {
+            return;
+        }
+        inbound.addAll(message.keys());
+    }
+
+    private Set<String> drain(Set<String> pending) {
+        Set<String> batch = new LinkedHashSet<>();
+        Iterator<String> iterator = pending.iterator();
+        while (iterator.hasNext() && batch.size() < maxBatchSize) {
+            batch.add(iterator.next());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    private void notifyListeners(Set<String> keys) {
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.invalidate(keys);
+            } catch (RuntimeException e) {
+                log.error("Ошибка при сбросе кэша: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.taskPro.invalidation;
+
+import java.util.Set;
+
+// Локальный кэш узла. Ключ InvalidationBus.ALL означает, что сбросить нужно всё
+@FunctionalInterface
+public interface InvalidationListener {
+    void invalidate(Set<String> keys);
+}
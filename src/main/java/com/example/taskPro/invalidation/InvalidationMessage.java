@@ -0,0 +1,6 @@
+package com.example.taskPro.invalidation;
+
+import java.util.Set;
+
+public record InvalidationMessage(String sourceNodeId, Set<String> keys) {
+}
@@ -0,0 +1,10 @@
+package com.example.taskPro.invalidation;
+
+import java.util.function.Consumer;
+
+// Доставка пачек ключей между узлами. Отправитель тоже может получить своё сообщение
+public interface InvalidationTransport {
+    void publish(InvalidationMessage message);
+
+    void subscribe(Consumer<InvalidationMessage> subscriber);
+}
@@ -0,0 +1,150 @@
+package com.example.taskPro.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Рассылка через LISTEN/NOTIFY PostgreSQL: отдельная брокерская инфраструктура не нужна.
+// Для прослушивания открывается собственное соединение вне пула Hikari, чтобы не занимать его слот.
+// NOTIFY не хранит сообщения, поэтому после переподключения подписчикам приходит ключ ALL
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "taskpro.invalidation.transport", havingValue = "postgres", matchIfMissing = true)
+public class PostgresInvalidationTransport implements InvalidationTransport, SmartLifecycle {
+    private static final String CHANNEL = "taskpro_invalidation";
+    // Лимит полезной нагрузки NOTIFY — 8000 байт
+    private static final int MAX_PAYLOAD_BYTES = 7000;
+    private static final long POLL_TIMEOUT_MS = 1000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final List<Consumer<InvalidationMessage>> subscribers = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresInvalidationTransport(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    // Формат: id узла в первой строке, далее по ключу на строку; большие пачки делятся на несколько NOTIFY
+    @Override
+    public void publish(InvalidationMessage message) {
+        StringBuilder payload = new StringBuilder(message.sourceNodeId());
+        int bytes = payload.length();
+        for (String key : message.keys()) {
+            int keyBytes = key.getBytes(StandardCharsets.UTF_8).length + 1;
+            if (bytes + keyBytes > MAX_PAYLOAD_BYTES) {
+                notify(payload.toString());
+                payload.setLength(0);
+                payload.append(message.sourceNodeId());
+                bytes = payload.length();
+            }
+            payload.append('\n').append(key);
+            bytes += keyBytes;
+        }
+        notify(payload.toString());
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        listenerThread = new Thread(this::listen, "invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void notify(String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (reconnect) {
+                    deliver(new InvalidationMessage("", Set.of(InvalidationBus.ALL)));
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            deliver(parse(notification.getParameter()));
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Потеряно соединение для LISTEN {}, переподключение через {} мс: {}",
+                        CHANNEL, RECONNECT_DELAY_MS, e.getMessage());
+                reconnect = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private InvalidationMessage parse(String payload) {
+        List<String> lines = new ArrayList<>(Arrays.asList(payload.split("\n")));
+        String sourceNodeId = lines.remove(0);
+        return new InvalidationMessage(sourceNodeId, new LinkedHashSet<>(lines));
+    }
+
+    private void deliver(InvalidationMessage message) {
+        for (Consumer<InvalidationMessage> subscriber : subscribers) {
+            try {
+                subscriber.accept(message);
+            } catch (RuntimeException e) {
+                log.error("Ошибка обработки сообщения инвалидации: {}", e.getMessage());
+            }
+        }
+    }
+}
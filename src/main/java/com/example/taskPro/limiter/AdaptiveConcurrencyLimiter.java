@@ -0,0 +1,82 @@
+package com.example.taskPro.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// AIMD-лимит одновременных запросов: пока задержка ниже порога и лимит используется, он растёт примерно
+// на единицу за каждые limit завершённых запросов; медленный или упавший запрос уменьшает его в backoffRatio раз.
+// Так число запросов, ждущих соединения с базой, не растёт вместе с её замедлением.
+// Запросы, начатые до последнего снижения, лимит повторно не снижают: иначе одна волна медленных
+// ответов обрушила бы его до минимума
+public class AdaptiveConcurrencyLimiter {
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdNanos, double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Некорректные параметры ограничителя: min=" + minLimit
+                    + ", max=" + maxLimit + ", backoffRatio=" + backoffRatio);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.getLimitShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // startNanos — значение System.nanoTime() в момент начала обработки запроса
+    public void release(long startNanos) {
+        long now = System.nanoTime();
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        adjust(now - startNanos > latencyThresholdNanos, startNanos, now, inFlightAtCompletion);
+    }
+
+    public void releaseFailed(long startNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        adjust(true, startNanos, System.nanoTime(), inFlightAtCompletion);
+    }
+
+    // Для запросов, длительность которых не отражает нагрузку (потоковая выгрузка)
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void adjust(boolean overloaded, long startNanos, long now, int inFlightAtCompletion) {
+        if (overloaded) {
+            if (startNanos - lastDecreaseNanos > 0) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+                lastDecreaseNanos = now;
+            }
+        } else if (inFlightAtCompletion * 2 >= limit) {
+            // Лимит растёт, только если он действительно используется, иначе он раздуется в простое
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+}
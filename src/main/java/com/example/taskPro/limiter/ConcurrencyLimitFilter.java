@@ -0,0 +1,91 @@
+package com.example.taskPro.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+// Отсекает лишние запросы с 503 до того, как они займут поток Tomcat в ожидании соединения с базой
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final String EXPORT_PATH = "/tasks/export";
+    private static final Set<String> BULK_READ_PATHS = Set.of(
+            "/tasks/filter", "/tasks/search", "/tasks/changes", "/tasks/overdue", EXPORT_PATH);
+    private static final Set<String> BULK_READ_PREFIXES = Set.of("/tasks/author/", "/tasks/executor/");
+    // Загрузка и скачивание вложений длятся столько, сколько идёт передача файла
+    private static final Pattern ATTACHMENT_PATH = Pattern.compile("^/tasks/[^/]+/attachments(/.*)?$");
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejected.put(priority, meterRegistry.counter("taskpro.limiter.rejected", "priority", priority.name()));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestPriority priority = classify(request);
+        if (!limiter.tryAcquire(priority)) {
+            rejected.get(priority).increment();
+            log.debug("Запрос {} {} отклонён: лимит {}", request.getMethod(), request.getRequestURI(),
+                    limiter.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("text/plain;charset=UTF-8");
+            response.getWriter().write("Сервер перегружен, повторите запрос позже");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            String path = path(request);
+            if (EXPORT_PATH.equals(path) || ATTACHMENT_PATH.matcher(path).matches()) {
+                limiter.releaseWithoutSample();
+            } else if (failed) {
+                limiter.releaseFailed(start);
+            } else {
+                limiter.release(start);
+            }
+        }
+    }
+
+    // Запись и аутентификация важнее чтения, массовые чтения отсекаются первыми
+    private RequestPriority classify(HttpServletRequest request) {
+        String path = path(request);
+        if (ATTACHMENT_PATH.matcher(path).matches()) {
+            return RequestPriority.BULK;
+        }
+        if (path.startsWith("/auth/") || !HttpMethod.GET.matches(request.getMethod())) {
+            return RequestPriority.CRITICAL;
+        }
+        if (BULK_READ_PATHS.contains(path) || BULK_READ_PREFIXES.stream().anyMatch(path::startsWith)) {
+            return RequestPriority.BULK;
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    private String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
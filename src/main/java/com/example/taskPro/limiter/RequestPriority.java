@@ -0,0 +1,15 @@
+package com.example.taskPro.limiter;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Доля текущего лимита, доступная классу запросов: при перегрузке первыми отсекаются массовые чтения
+@Getter
+@RequiredArgsConstructor
+public enum RequestPriority {
+    CRITICAL(1.0),
+    NORMAL(0.8),
+    BULK(0.5);
+
+    private final double limitShare;
+}
@@ -0,0 +1,28 @@
+package com.example.taskPro.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// AsyncAppender, который считает отброшенные события: при заполнении очереди выше порога теряются
+// INFO и ниже, при полной очереди с neverBlock — любые. Счётчик публикуется как метрика taskpro.logging.dropped.
+// Проверка очереди и постановка в неё не атомарны, поэтому при гонке событие может потеряться без учёта
+public class CountingAsyncAppender extends AsyncAppender {
+    private static final LongAdder DROPPED = new LongAdder();
+
+    public static long getDroppedCount() {
+        return DROPPED.sum();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        int remaining = getRemainingCapacity();
+        boolean discardable = remaining < getDiscardingThreshold() && isDiscardable(event);
+        if (discardable || (isNeverBlock() && remaining == 0)) {
+            DROPPED.increment();
+            return;
+        }
+        super.append(event);
+    }
+}
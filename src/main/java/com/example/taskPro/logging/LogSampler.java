@@ -0,0 +1,34 @@
+package com.example.taskPro.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Пропускает не больше limit сообщений за окно, остальные только подсчитывает. Без блокировок и аллокаций,
+// поэтому проверку можно делать на каждом запросе, даже когда сообщение в итоге не пишется
+public class LogSampler {
+    private final long windowNanos;
+    private final int limit;
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger countInWindow = new AtomicInteger();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    public LogSampler(Duration window, int limit) {
+        this.windowNanos = window.toNanos();
+        this.limit = limit;
+    }
+
+    // -1 — сообщение нужно пропустить; иначе число сообщений, пропущенных с прошлого разрешённого
+    public long sample() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            countInWindow.set(0);
+        }
+        if (countInWindow.incrementAndGet() <= limit) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.taskPro.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "bulk_delete_jobs")
+public class BulkDeleteJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Критерии отбора: задачи автора и/или завершённые раньше completedBefore
+    private Long authorId;
+
+    private LocalDateTime completedBefore;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BulkDeleteJobStatus status;
+
+    @Column(nullable = false, updatable = false)
+    private Long maxTaskId;
+
+    // Сначала удаляются задачи из tasks, затем из архива
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BulkDeleteJobPhase phase;
+
+    // Последний обработанный id задачи в текущей фазе: следующая пачка начинается после него
+    @Column(nullable = false)
+    private long lastTaskId;
+
+    @Column(nullable = false)
+    private long deletedCount;
+
+    @Column(nullable = false, updatable = false)
+    private Long createdBy;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.taskPro.model;
+
+public enum BulkDeleteJobPhase {
+    TASKS,
+    ARCHIVE
+}
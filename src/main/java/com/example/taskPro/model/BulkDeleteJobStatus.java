@@ -0,0 +1,7 @@
+package com.example.taskPro.model;
+
+public enum BulkDeleteJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED
+}
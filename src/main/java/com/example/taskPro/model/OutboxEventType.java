@@ -0,0 +1,7 @@
+package com.example.taskPro.model;
+
+public enum OutboxEventType {
+    TASK_ASSIGNED,
+    TASK_STATUS_CHANGED,
+    TASK_OVERDUE
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
@@ -44,4 +45,45 @@ public class Task {
 
     @ElementCollection
     private List<String> comments;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Проставляется базой (последовательность task_change_seq) при каждой вставке и обновлении
+    @Column(insertable = false, updatable = false)
+    private Long changeSeq;
+
+    // Поддерживаются CommentService атомарным инкрементом при добавлении комментария
+    @Column(insertable = false, updatable = false)
+    private Integer commentCount;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime lastCommentAt;
+
+    private LocalDateTime dueAt;
+
+    // Проставляется TaskDeadlineService при наступлении срока, сбрасывается базой при переносе dueAt
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime overdueAt;
+
+    // Моменты переходов статуса проставляются триггером tasks_track_status
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime inProgressAt;
+
+    @Column(insertable = false, updatable = false)
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
 }
\ No newline at end of file
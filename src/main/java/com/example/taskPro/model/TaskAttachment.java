@@ -0,0 +1,52 @@
+package com.example.taskPro.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "task_attachments")
+public class TaskAttachment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private Long taskId;
+
+    @Column(nullable = false, updatable = false)
+    private Long uploaderId;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long size;
+
+    // Используется как ETag при скачивании
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    // Имя файла в каталоге taskpro.attachments.dir
+    @JsonIgnore
+    @Column(nullable = false, updatable = false, unique = true, length = 36)
+    private String storageKey;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
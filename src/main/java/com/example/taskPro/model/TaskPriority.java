@@ -1,7 +1,15 @@
 package com.example.taskPro.model;
 
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
 public enum TaskPriority {
-    HIGH,
-    MEDIUM,
-    LOW
+    HIGH(3),
+    MEDIUM(2),
+    LOW(1);
+
+    // Вес задачи при расчёте нагрузки исполнителя
+    private final int weight;
 }
\ No newline at end of file
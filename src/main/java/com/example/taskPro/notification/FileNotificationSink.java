@@ -0,0 +1,32 @@
+package com.example.taskPro.notification;
+
+import com.example.taskPro.model.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Дописывает события в локальный файл, по одному JSON-объекту на строку
+@Component
+@ConditionalOnProperty(name = "taskpro.outbox.sink", havingValue = "file")
+public class FileNotificationSink implements NotificationSink {
+    private final Path file;
+
+    public FileNotificationSink(@Value("${taskpro.outbox.file-path:notifications.ndjson}") String filePath) {
+        this.file = Path.of(filePath);
+    }
+
+    @Override
+    public synchronized void deliver(OutboxEvent event) throws IOException {
+        String line = "{\"id\":" + event.getId()
+                + ",\"type\":\"" + event.getEventType() + "\""
+                + ",\"recipientId\":" + event.getRecipientId()
+                + ",\"payload\":" + event.getPayload() + "}\n";
+        Files.writeString(file, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
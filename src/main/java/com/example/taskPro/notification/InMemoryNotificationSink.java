@@ -0,0 +1,39 @@
+package com.example.taskPro.notification;
+
+import com.example.taskPro.model.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Накапливает события в памяти; используется в тестах и бенчмарках
+@Component
+@ConditionalOnProperty(name = "taskpro.outbox.sink", havingValue = "memory")
+public class InMemoryNotificationSink implements NotificationSink {
+    private final ConcurrentLinkedQueue<OutboxEvent> delivered = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger failuresToSimulate = new AtomicInteger();
+
+    @Override
+    public void deliver(OutboxEvent event) {
+        if (failuresToSimulate.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            throw new IllegalStateException("Имитация сбоя доставки");
+        }
+        delivered.add(event);
+    }
+
+    public List<OutboxEvent> getDelivered() {
+        return new ArrayList<>(delivered);
+    }
+
+    public void failNext(int count) {
+        failuresToSimulate.set(count);
+    }
+
+    public void clear() {
+        delivered.clear();
+        failuresToSimulate.set(0);
+    }
+}
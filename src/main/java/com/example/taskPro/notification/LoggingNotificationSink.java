@@ -0,0 +1,18 @@
+package com.example.taskPro.notification;
+
+import com.example.taskPro.model.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "taskpro.outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingNotificationSink implements NotificationSink {
+
+    @Override
+    public void deliver(OutboxEvent event) {
+        log.info("Уведомление {} для пользователя {}: {}", event.getEventType(), event.getRecipientId(),
+                event.getPayload());
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.taskPro.notification;
+
+import com.example.taskPro.model.OutboxEvent;
+
+// Канал доставки уведомлений из outbox. Исключение означает, что событие нужно повторить позже
+public interface NotificationSink {
+    void deliver(OutboxEvent event) throws Exception;
+}
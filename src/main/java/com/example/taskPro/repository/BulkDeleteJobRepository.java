@@ -0,0 +1,28 @@
+package com.example.taskPro.repository;
+
+import com.example.taskPro.model.BulkDeleteJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BulkDeleteJobRepository extends JpaRepository<BulkDeleteJob, Long> {
+    @Query(value = "SELECT id FROM bulk_delete_jobs WHERE status IN ('PENDING', 'RUNNING') ORDER BY id",
+            nativeQuery = true)
+    List<Long> findActiveIds();
+
+    // Задание, которое сейчас обрабатывает другой узел, пропускается
+    @Query(value = "SELECT * FROM bulk_delete_jobs WHERE id = :id AND status IN ('PENDING', 'RUNNING')"
+            + " FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    Optional<BulkDeleteJob> lockActive(@Param("id") Long id);
+
+    @Modifying
+    @Query("update BulkDeleteJob j set j.lastError = :error where j.id = :id")
+    int updateLastError(@Param("id") Long id, @Param("error") String error);
+}
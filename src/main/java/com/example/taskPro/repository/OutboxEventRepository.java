@@ -0,0 +1,18 @@
+package com.example.taskPro.repository;
+
+import com.example.taskPro.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    // Пачка готовых к доставке событий; строки, которые уже обрабатывает другой узел, пропускаются
+    @Query(value = "SELECT * FROM task_outbox WHERE next_attempt_at <= NOW()"
+            + " ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockDueBatch(@Param("limit") int limit);
+}
@@ -0,0 +1,31 @@
+package com.example.taskPro.repository;
+
+import com.example.taskPro.model.TaskAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+public interface TaskAttachmentRepository extends JpaRepository<TaskAttachment, Long> {
+    List<TaskAttachment> findByTaskIdOrderById(Long taskId);
+
+    Optional<TaskAttachment> findByIdAndTaskId(Long id, Long taskId);
+
+    // Какие из переданных ключей есть в базе: файлы каталога проверяются пачкой, а не запросом на каждый
+    @Query("select a.storageKey from TaskAttachment a where a.storageKey in :storageKeys")
+    Set<String> findExistingStorageKeys(@Param("storageKeys") Collection<String> storageKeys);
+
+    // Удаляет метаданные вложений задач, которых нет ни в tasks, ни в архиве; возвращает ключи их файлов
+    @Query(value = "DELETE FROM task_attachments a"
+            + " WHERE NOT EXISTS (SELECT 1 FROM tasks t WHERE t.id = a.task_id)"
+            + " AND NOT EXISTS (SELECT 1 FROM tasks_archive ta WHERE ta.id = a.task_id)"
+            + " RETURNING storage_key",
+            nativeQuery = true)
+    List<String> deleteOrphans();
+}
@@ -0,0 +1,5 @@
+package com.example.taskPro.repository;
+
+// Запись ленты изменений: задача создана или изменена (removed == false) либо удалена из выборки клиента
+public record TaskChange(Long taskId, long changeSeq, boolean removed) {
+}
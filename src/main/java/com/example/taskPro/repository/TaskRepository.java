@@ -4,16 +4,146 @@ import com.example.taskPro.model.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+    // Общий список колонок для tasks и tasks_archive: нужен, чтобы UNION ALL собирался в сущность Task
+    String TASK_COLUMNS = "id, title, description, status, priority, author_id, executor_id, created_at, updated_at,"
+            + " change_seq, comment_count, last_comment_at, due_at, overdue_at, in_progress_at, completed_at";
+
+    // Ранг приоритета для сортировки (HIGH первым); по этому выражению построены индексы очереди и поиска
+    String PRIORITY_RANK = "(CASE priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END)";
+
     Page<Task> findByAuthorIdOrExecutorId(Long authorId, Long executorId, Pageable pageable);
 
     Page<Task> findByAuthorId(Long authorId, Pageable pageable);
 
     Page<Task> findByExecutorId(Long executorId, Pageable pageable);
 
+    boolean existsByIdAndExecutorId(Long id, Long executorId);
+
+    // Удаление задачи вместе с записью tombstone для дельта-синхронизации; 0 — задачи не было
+    @Modifying
+    @Query(value = "WITH deleted AS (DELETE FROM tasks WHERE id = :id RETURNING id)"
+            + " INSERT INTO task_tombstones (task_id) SELECT id FROM deleted"
+            + " ON CONFLICT (task_id) DO UPDATE SET change_seq = nextval('task_change_seq'), deleted_at = NOW()",
+            nativeQuery = true)
+    int deleteWithTombstone(@Param("id") Long id);
+
+    @Query("select coalesce(max(t.id), 0) from Task t")
+    long findMaxId();
+
+    // Пачка массового удаления: задачи по возрастанию id после курсора, комментарии удаляются каскадом,
+    // для дельта-синхронизации пишутся tombstone. Возвращает id удалённых задач
+    @Query(value = "WITH batch AS ("
+            + " SELECT id FROM tasks WHERE id > :afterId AND id <= :maxId"
+            + " AND (CAST(:authorId AS BIGINT) IS NULL OR author_id = :authorId)"
+            + " AND (CAST(:completedBefore AS TIMESTAMP) IS NULL"
+            + " OR (status = 'COMPLETED' AND completed_at < :completedBefore))"
+            + " ORDER BY id LIMIT :limit FOR UPDATE"
+            + "), deleted AS ("
+            + " DELETE FROM tasks t USING batch b WHERE t.id = b.id RETURNING t.id"
+            + "), tombstones AS ("
+            + " INSERT INTO task_tombstones (task_id) SELECT id FROM deleted"
+            + " ON CONFLICT (task_id) DO UPDATE SET change_seq = nextval('task_change_seq'), deleted_at = NOW()"
+            + ") SELECT id FROM deleted ORDER BY id",
+            nativeQuery = true)
+    List<Long> deleteChunk(@Param("authorId") Long authorId, @Param("completedBefore") LocalDateTime completedBefore,
+                           @Param("afterId") long afterId, @Param("maxId") long maxId, @Param("limit") int limit);
+
+    // Пачка массового удаления из архива с теми же критериями, комментарии архива удаляются каскадом.
+    // Tombstone при архивации уже записан, поэтому здесь не нужен
+    @Query(value = "WITH batch AS ("
+            + " SELECT id FROM tasks_archive WHERE id > :afterId AND id <= :maxId"
+            + " AND (CAST(:authorId AS BIGINT) IS NULL OR author_id = :authorId)"
+            + " AND (CAST(:completedBefore AS TIMESTAMP) IS NULL"
+            + " OR (status = 'COMPLETED' AND completed_at < :completedBefore))"
+            + " ORDER BY id LIMIT :limit FOR UPDATE"
+            + "), deleted AS ("
+            + " DELETE FROM tasks_archive t USING batch b WHERE t.id = b.id RETURNING t.id"
+            + ") SELECT id FROM deleted ORDER BY id",
+            nativeQuery = true)
+    List<Long> deleteArchivedChunk(@Param("authorId") Long authorId,
+                                   @Param("completedBefore") LocalDateTime completedBefore,
+                                   @Param("afterId") long afterId, @Param("maxId") long maxId,
+                                   @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE tasks SET comment_count = comment_count + 1,"
+            + " last_comment_at = GREATEST(COALESCE(last_comment_at, :commentedAt), :commentedAt)"
+            + " WHERE id = :id",
+            nativeQuery = true)
+    int incrementCommentCount(@Param("id") Long id, @Param("commentedAt") LocalDateTime commentedAt);
+
+    // Условия совпадают с частичными индексами idx_tasks_open_due_at и idx_tasks_open_executor_due_at
+    @Query(value = "SELECT " + TASK_COLUMNS + " FROM tasks"
+            + " WHERE due_at IS NOT NULL AND status <> 'COMPLETED' AND due_at < :now ORDER BY due_at, id",
+            countQuery = "SELECT count(*) FROM tasks WHERE due_at IS NOT NULL AND status <> 'COMPLETED' AND due_at < :now",
+            nativeQuery = true)
+    Page<Task> findOverdue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query(value = "SELECT " + TASK_COLUMNS + " FROM tasks WHERE executor_id = :executorId"
+            + " AND due_at IS NOT NULL AND status <> 'COMPLETED' AND due_at < :now ORDER BY due_at, id",
+            countQuery = "SELECT count(*) FROM tasks WHERE executor_id = :executorId"
+                    + " AND due_at IS NOT NULL AND status <> 'COMPLETED' AND due_at < :now",
+            nativeQuery = true)
+    Page<Task> findOverdueByExecutorId(@Param("executorId") Long executorId, @Param("now") LocalDateTime now,
+                                       Pageable pageable);
+
+    @Query(value = "SELECT * FROM ("
+            + "SELECT " + TASK_COLUMNS + " FROM tasks WHERE author_id = :authorId OR executor_id = :executorId"
+            + " UNION ALL SELECT " + TASK_COLUMNS + " FROM tasks_archive"
+            + " WHERE author_id = :authorId OR executor_id = :executorId) t ORDER BY id",
+            countQuery = "SELECT (SELECT count(*) FROM tasks WHERE author_id = :authorId OR executor_id = :executorId)"
+                    + " + (SELECT count(*) FROM tasks_archive WHERE author_id = :authorId OR executor_id = :executorId)",
+            nativeQuery = true)
+    Page<Task> findWithArchiveByAuthorIdOrExecutorId(@Param("authorId") Long authorId,
+                                                     @Param("executorId") Long executorId,
+                                                     Pageable pageable);
+
+    @Query(value = "SELECT * FROM ("
+            + "SELECT " + TASK_COLUMNS + " FROM tasks WHERE author_id = :authorId"
+            + " UNION ALL SELECT " + TASK_COLUMNS + " FROM tasks_archive WHERE author_id = :authorId) t ORDER BY id",
+            countQuery = "SELECT (SELECT count(*) FROM tasks WHERE author_id = :authorId)"
+                    + " + (SELECT count(*) FROM tasks_archive WHERE author_id = :authorId)",
+            nativeQuery = true)
+    Page<Task> findWithArchiveByAuthorId(@Param("authorId") Long authorId, Pageable pageable);
+
+    @Query(value = "SELECT * FROM ("
+            + "SELECT " + TASK_COLUMNS + " FROM tasks WHERE executor_id = :executorId"
+            + " UNION ALL SELECT " + TASK_COLUMNS + " FROM tasks_archive WHERE executor_id = :executorId) t ORDER BY id",
+            countQuery = "SELECT (SELECT count(*) FROM tasks WHERE executor_id = :executorId)"
+                    + " + (SELECT count(*) FROM tasks_archive WHERE executor_id = :executorId)",
+            nativeQuery = true)
+    Page<Task> findWithArchiveByExecutorId(@Param("executorId") Long executorId, Pageable pageable);
+
+    // Переносит пачку завершённых задач (вместе с комментариями) в архив одним запросом и возвращает их число.
+    // Заблокированные строки пропускаются, поэтому параллельные запуски не мешают друг другу.
+    // Для дельта-синхронизации архивированные задачи получают tombstone, как и удалённые.
+    @Query(value = "WITH batch AS ("
+            + " SELECT id FROM tasks WHERE status = 'COMPLETED' AND updated_at < :cutoff"
+            + " ORDER BY updated_at, id LIMIT :limit FOR UPDATE SKIP LOCKED"
+            + "), moved_tasks AS ("
+            + " DELETE FROM tasks t USING batch b WHERE t.id = b.id"
+            + " RETURNING t.*"
+            + "), archived_tasks AS ("
+            + " INSERT INTO tasks_archive (" + TASK_COLUMNS + ")"
+            + " SELECT " + TASK_COLUMNS + " FROM moved_tasks RETURNING id"
+            + "), archived_comments AS ("
+            + " INSERT INTO comments_archive (id, task_id, author_id, content, created_at)"
+            + " SELECT c.id, c.task_id, c.author_id, c.content, c.created_at FROM comments c JOIN batch b ON c.task_id = b.id"
+            + "), tombstones AS ("
+            + " INSERT INTO task_tombstones (task_id) SELECT id FROM moved_tasks"
+            + " ON CONFLICT (task_id) DO UPDATE SET change_seq = nextval('task_change_seq'), deleted_at = NOW()"
+            + ") SELECT count(*) FROM archived_tasks",
+            nativeQuery = true)
+    long archiveCompletedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
 }
\ No newline at end of file
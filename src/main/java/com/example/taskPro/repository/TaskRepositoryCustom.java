@@ -0,0 +1,39 @@
+package com.example.taskPro.repository;
+
+import com.example.taskPro.dto.taskDto.TaskField;
+import com.example.taskPro.dto.taskDto.TaskSearchCriteria;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+public interface TaskRepositoryCustom {
+    Page<Map<String, Object>> findFields(Set<TaskField> fields, Long authorId, Long executorId,
+                                         boolean includeArchived, Pageable pageable);
+
+    Page<Task> search(TaskSearchCriteria criteria, Pageable pageable);
+
+    Optional<Task> claimNext(Long executorId);
+
+    Optional<Task> updateStatus(Long taskId, Long executorId, TaskStatus status);
+
+    Optional<Task> updatePriority(Long taskId, TaskPriority priority);
+
+    Optional<Task> assignExecutor(Long taskId, Long executorId);
+
+    List<Long> assignExecutors(List<Long> taskIds, List<Long> executorIds);
+
+    int markOverdue(Collection<Long> taskIds, LocalDateTime now);
+
+    int markOverdueBefore(LocalDateTime cutoff, LocalDateTime now, int limit);
+
+    List<TaskChange> findChanges(long since, Long executorId, int limit);
+}
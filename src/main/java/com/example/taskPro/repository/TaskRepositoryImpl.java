@@ -0,0 +1,335 @@
+package com.example.taskPro.repository;
+
+import com.example.taskPro.dto.taskDto.TaskField;
+import com.example.taskPro.dto.taskDto.TaskSearchCriteria;
+import com.example.taskPro.model.OutboxEventType;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Запросы с динамическим списком колонок: выбираются только запрошенные поля и нужные join'ы
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+    private static final String HOT_SOURCE = "tasks";
+    private static final String WITH_ARCHIVE_SOURCE = "(SELECT " + TaskRepository.TASK_COLUMNS + " FROM tasks"
+            + " UNION ALL SELECT " + TaskRepository.TASK_COLUMNS + " FROM tasks_archive)";
+
+    // Одним запросом выбирает самую приоритетную свободную задачу и забирает её исполнителю.
+    // SKIP LOCKED пропускает строки, которые прямо сейчас забирают другие, поэтому конкуренты не ждут друг друга
+    private static final String CLAIM_NEXT_SQL = "UPDATE tasks"
+            + " SET executor_id = :executorId, status = 'IN_PROGRESS', updated_at = NOW()"
+            + " WHERE id = (SELECT id FROM tasks WHERE status = 'PENDING' AND executor_id IS NULL"
+            + " ORDER BY " + TaskRepository.PRIORITY_RANK + ", id"
+            + " LIMIT 1 FOR UPDATE SKIP LOCKED)"
+            + " RETURNING " + TaskRepository.TASK_COLUMNS;
+
+    // Точечные изменения задачи: одно UPDATE ... RETURNING вместо чтения строки и сохранения её целиком.
+    // Условие в WHERE заменяет предварительные проверки: пустой результат означает, что строка не подошла
+    // Изменения, о которых уведомляется исполнитель, в том же запросе пишут событие в task_outbox
+    private static final String UPDATE_STATUS_SQL = "WITH updated AS ("
+            + "UPDATE tasks SET status = :status, updated_at = NOW()"
+            + " WHERE id = :taskId AND executor_id = :executorId"
+            + " RETURNING " + TaskRepository.TASK_COLUMNS
+            + "), event AS (" + outboxInsert(OutboxEventType.TASK_STATUS_CHANGED) + ")"
+            + " SELECT * FROM updated";
+
+    private static final String UPDATE_PRIORITY_SQL = "UPDATE tasks SET priority = :priority, updated_at = NOW()"
+            + " WHERE id = :taskId"
+            + " RETURNING " + TaskRepository.TASK_COLUMNS;
+
+    private static final String ASSIGN_EXECUTOR_SQL = "WITH updated AS ("
+            + "UPDATE tasks SET executor_id = :executorId, updated_at = NOW()"
+            + " WHERE id = :taskId AND EXISTS (SELECT 1 FROM users WHERE id = :executorId)"
+            + " RETURNING " + TaskRepository.TASK_COLUMNS
+            + "), event AS (" + outboxInsert(OutboxEventType.TASK_ASSIGNED) + ")"
+            + " SELECT * FROM updated";
+
+    // Пачка автоназначения: пары (задача, исполнитель) приходят двумя массивами одинаковой длины.
+    // Задачу, которую успели назначить вручную, запрос не трогает; событие пишется только для обновлённых строк
+    private static final String ASSIGN_EXECUTORS_SQL = "WITH plan AS ("
+            + "SELECT * FROM unnest(CAST(:taskIds AS BIGINT[]), CAST(:executorIds AS BIGINT[]))"
+            + " AS p(task_id, executor_id)"
+            + "), updated AS ("
+            + "UPDATE tasks t SET executor_id = p.executor_id, updated_at = NOW() FROM plan p"
+            + " WHERE t.id = p.task_id AND t.executor_id IS NULL"
+            + " RETURNING t.*"
+            + "), event AS (" + outboxInsert(OutboxEventType.TASK_ASSIGNED) + ")"
+            + " SELECT id FROM updated";
+
+    // Отметка о просрочке ставится только один раз и только если срок действительно наступил,
+    // поэтому повторное или запоздалое срабатывание таймера (в том числе на другом узле) ничего не меняет
+    private static final String MARK_OVERDUE_SQL = "WITH updated AS ("
+            + "UPDATE tasks SET overdue_at = :now"
+            + " WHERE id IN (:taskIds) AND overdue_at IS NULL AND status <> 'COMPLETED' AND due_at <= :now"
+            + " RETURNING " + TaskRepository.TASK_COLUMNS
+            + "), event AS (" + outboxInsert(OutboxEventType.TASK_OVERDUE) + ")"
+            + " SELECT count(*) FROM updated";
+
+    // Старт самой старой незавершённой транзакции, уже получившей идентификатор (только такие берут change_seq).
+    // Читается отдельным запросом до выборки изменений: всё, что к этому моменту зафиксировано, выборка увидит
+    private static final String CHANGE_HORIZON_SQL = "SELECT CAST(COALESCE("
+            + "(SELECT min(xact_start) FROM pg_stat_activity WHERE backend_xid IS NOT NULL"
+            + " AND datname = current_database()), clock_timestamp()) AT TIME ZONE 'UTC' AS TEXT)";
+
+    // Досчёт просрочек по частичному индексу: пачка наступивших, но ещё не отмеченных сроков
+    private static final String MARK_OVERDUE_BEFORE_SQL = "WITH updated AS ("
+            + "UPDATE tasks SET overdue_at = :now"
+            + " WHERE id IN (SELECT id FROM tasks WHERE due_at <= :cutoff AND due_at IS NOT NULL"
+            + " AND status <> 'COMPLETED' AND overdue_at IS NULL ORDER BY due_at, id LIMIT :limit FOR UPDATE SKIP LOCKED)"
+            + " AND overdue_at IS NULL"
+            + " RETURNING " + TaskRepository.TASK_COLUMNS
+            + "), event AS (" + outboxInsert(OutboxEventType.TASK_OVERDUE) + ")"
+            + " SELECT count(*) FROM updated";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Map<String, Object>> findFields(Set<TaskField> fields, Long authorId, Long executorId,
+                                                boolean includeArchived, Pageable pageable) {
+        String from = " FROM " + (includeArchived ? WITH_ARCHIVE_SOURCE : HOT_SOURCE) + " t";
+        String where = buildWhere(authorId, executorId);
+        boolean executorJoin = fields.stream().anyMatch(TaskField::isExecutorJoinRequired);
+
+        String select = "SELECT " + fields.stream().map(TaskField::getColumn).collect(Collectors.joining(", "))
+                + from
+                + (executorJoin ? " LEFT JOIN users e ON e.id = t.executor_id" : "")
+                + where
+                + " ORDER BY t.id";
+
+        Query query = entityManager.createNativeQuery(select);
+        bindFilter(query, authorId, executorId);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+
+        List<?> rows = query.getResultList();
+        List<Map<String, Object>> content = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            // При одной колонке Hibernate возвращает скаляр, а не массив
+            Object[] values = row instanceof Object[] array ? array : new Object[]{row};
+            Map<String, Object> item = new LinkedHashMap<>();
+            int i = 0;
+            for (TaskField field : fields) {
+                item.put(field.getName(), toJsonValue(values[i++]));
+            }
+            content.add(item);
+        }
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            Query countQuery = entityManager.createNativeQuery("SELECT count(*)" + from + where);
+            bindFilter(countQuery, authorId, executorId);
+            return ((Number) countQuery.getSingleResult()).longValue();
+        });
+    }
+
+    // Все условия и сортировка собираются в один параметризованный запрос; значения только через параметры.
+    // Составные индексы (V9) отдают строки уже в порядке выдачи только при одном статусе;
+    // для нескольких статусов база объединяет диапазоны индекса и досортировывает результат
+    @Override
+    public Page<Task> search(TaskSearchCriteria criteria, Pageable pageable) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (!criteria.getStatuses().isEmpty()) {
+            conditions.add("status IN (:statuses)");
+            parameters.put("statuses", names(criteria.getStatuses()));
+        }
+        if (!criteria.getPriorities().isEmpty()) {
+            conditions.add("priority IN (:priorities)");
+            parameters.put("priorities", names(criteria.getPriorities()));
+        }
+        if (criteria.getAuthorId() != null) {
+            conditions.add("author_id = :authorId");
+            parameters.put("authorId", criteria.getAuthorId());
+        }
+        if (criteria.isUnassignedOnly()) {
+            conditions.add("executor_id IS NULL");
+        } else if (criteria.getExecutorId() != null) {
+            conditions.add("executor_id = :executorId");
+            parameters.put("executorId", criteria.getExecutorId());
+        }
+        String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+
+        Query query = entityManager.createNativeQuery("SELECT " + TaskRepository.TASK_COLUMNS + " FROM tasks"
+                + where + " ORDER BY " + criteria.getSort().getOrderBy(), Task.class);
+        parameters.forEach(query::setParameter);
+        query.setFirstResult((int) pageable.getOffset());
+        query.setMaxResults(pageable.getPageSize());
+        List<?> rows = query.getResultList();
+        List<Task> content = rows.stream().map(Task.class::cast).toList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            Query countQuery = entityManager.createNativeQuery("SELECT count(*) FROM tasks" + where);
+            parameters.forEach(countQuery::setParameter);
+            return ((Number) countQuery.getSingleResult()).longValue();
+        });
+    }
+
+    @Override
+    public Optional<Task> claimNext(Long executorId) {
+        return singleTask(entityManager.createNativeQuery(CLAIM_NEXT_SQL, Task.class)
+                .setParameter("executorId", executorId));
+    }
+
+    @Override
+    public Optional<Task> updateStatus(Long taskId, Long executorId, TaskStatus status) {
+        return singleTask(entityManager.createNativeQuery(UPDATE_STATUS_SQL, Task.class)
+                .setParameter("status", status.name())
+                .setParameter("taskId", taskId)
+                .setParameter("executorId", executorId));
+    }
+
+    @Override
+    public Optional<Task> updatePriority(Long taskId, TaskPriority priority) {
+        return singleTask(entityManager.createNativeQuery(UPDATE_PRIORITY_SQL, Task.class)
+                .setParameter("priority", priority.name())
+                .setParameter("taskId", taskId));
+    }
+
+    @Override
+    public Optional<Task> assignExecutor(Long taskId, Long executorId) {
+        return singleTask(entityManager.createNativeQuery(ASSIGN_EXECUTOR_SQL, Task.class)
+                .setParameter("taskId", taskId)
+                .setParameter("executorId", executorId));
+    }
+
+    @Override
+    public List<Long> assignExecutors(List<Long> taskIds, List<Long> executorIds) {
+        List<?> rows = entityManager.createNativeQuery(ASSIGN_EXECUTORS_SQL)
+                .setParameter("taskIds", arrayLiteral(taskIds))
+                .setParameter("executorIds", arrayLiteral(executorIds))
+                .getResultList();
+        return rows.stream().map(row -> ((Number) row).longValue()).toList();
+    }
+
+    @Override
+    public int markOverdue(Collection<Long> taskIds, LocalDateTime now) {
+        Object count = entityManager.createNativeQuery(MARK_OVERDUE_SQL)
+                .setParameter("taskIds", taskIds)
+                .setParameter("now", now)
+                .getSingleResult();
+        return ((Number) count).intValue();
+    }
+
+    @Override
+    public int markOverdueBefore(LocalDateTime cutoff, LocalDateTime now, int limit) {
+        Object count = entityManager.createNativeQuery(MARK_OVERDUE_BEFORE_SQL)
+                .setParameter("cutoff", cutoff)
+                .setParameter("now", now)
+                .setParameter("limit", limit)
+                .getSingleResult();
+        return ((Number) count).intValue();
+    }
+
+    // Лента изменений обрывается перед первым номером, выданным после горизонта: такой номер могла взять
+    // ещё не зафиксированная транзакция, и меньшие номера за ним пока не гарантированы.
+    // Всё, что выдано раньше горизонта, уже зафиксировано или отменено, поэтому токен не перепрыгнет через строки
+    @Override
+    public List<TaskChange> findChanges(long since, Long executorId, int limit) {
+        String horizon = (String) entityManager.createNativeQuery(CHANGE_HORIZON_SQL).getSingleResult();
+
+        String executorFilter = executorId != null ? " AND executor_id = :executorId" : "";
+        String unsettled = " WHERE change_seq > :since AND change_at >= CAST(:horizon AS TIMESTAMP)";
+        StringBuilder sql = new StringBuilder("WITH cut AS (SELECT COALESCE(LEAST(")
+                .append("(SELECT min(change_seq) FROM tasks").append(unsettled).append(executorFilter).append(")")
+                .append(", (SELECT min(change_seq) FROM task_tombstones").append(unsettled).append(")");
+        if (executorId != null) {
+            sql.append(", (SELECT min(change_seq) FROM task_unassignments")
+                    .append(unsettled).append(executorFilter).append(")");
+        }
+        sql.append("), ").append(Long.MAX_VALUE).append(") AS seq)")
+                .append(" SELECT * FROM (")
+                .append(changesBranch("id", false, "tasks", executorFilter))
+                .append(" UNION ALL ").append(changesBranch("task_id", true, "task_tombstones", ""));
+        if (executorId != null) {
+            sql.append(" UNION ALL ").append(changesBranch("task_id", true, "task_unassignments", executorFilter));
+        }
+        sql.append(") c ORDER BY change_seq LIMIT :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString())
+                .setParameter("since", since)
+                .setParameter("horizon", horizon)
+                .setParameter("limit", limit);
+        if (executorId != null) {
+            query.setParameter("executorId", executorId);
+        }
+
+        List<?> rows = query.getResultList();
+        List<TaskChange> changes = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            Object[] values = (Object[]) row;
+            changes.add(new TaskChange(((Number) values[0]).longValue(), ((Number) values[1]).longValue(),
+                    (Boolean) values[2]));
+        }
+        return changes;
+    }
+
+    private static String changesBranch(String idColumn, boolean removed, String table, String executorFilter) {
+        return "(SELECT " + idColumn + " AS task_id, change_seq, " + removed + " AS removed FROM " + table
+                + " WHERE change_seq > :since AND change_seq < (SELECT seq FROM cut)" + executorFilter
+                + " ORDER BY change_seq LIMIT :limit)";
+    }
+
+    private static String outboxInsert(OutboxEventType type) {
+        return "INSERT INTO task_outbox (event_type, task_id, recipient_id, payload)"
+                + " SELECT '" + type.name() + "', id, executor_id, json_build_object("
+                + "'taskId', id, 'title', title, 'status', status, 'priority', priority,"
+                + " 'authorId', author_id, 'executorId', executor_id, 'updatedAt', updated_at, 'dueAt', due_at)::text"
+                + " FROM updated";
+    }
+
+    private static String arrayLiteral(List<Long> values) {
+        return values.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+    }
+
+    private Optional<Task> singleTask(Query query) {
+        List<?> rows = query.getResultList();
+        return rows.stream().map(Task.class::cast).findFirst();
+    }
+
+    private List<String> names(Collection<? extends Enum<?>> values) {
+        return values.stream().map(Enum::name).toList();
+    }
+
+    private String buildWhere(Long authorId, Long executorId) {
+        if (authorId != null && executorId != null) {
+            return " WHERE (t.author_id = :authorId OR t.executor_id = :executorId)";
+        } else if (authorId != null) {
+            return " WHERE t.author_id = :authorId";
+        } else if (executorId != null) {
+            return " WHERE t.executor_id = :executorId";
+        }
+        return "";
+    }
+
+    private void bindFilter(Query query, Long authorId, Long executorId) {
+        if (authorId != null) {
+            query.setParameter("authorId", authorId);
+        }
+        if (executorId != null) {
+            query.setParameter("executorId", executorId);
+        }
+    }
+
+    private Object toJsonValue(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        return value;
+    }
+}
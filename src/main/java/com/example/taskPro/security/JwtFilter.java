@@ -2,6 +2,7 @@ package com.example.taskPro.security;
 
 import com.example.taskPro.model.User;
 import com.example.taskPro.repository.UserRepository;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -25,13 +26,15 @@ import java.io.IOException;
 public class JwtFilter extends OncePerRequestFilter {
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String token = getTokenFromRequest(request);
-        if (token != null && jwtUtil.validateToken(token)) {
-            Long userId = jwtUtil.extractUserId(token);
+        Claims claims = token != null ? jwtUtil.parseClaims(token) : null;
+        if (claims != null && !tokenRevocationService.isRevoked(claims.getId())) {
+            Long userId = claims.get("userId", Long.class);
             UserDetails userDetails = userDetailsService.loadUserByUsername(userId.toString());
 
             UsernamePasswordAuthenticationToken authentication =
@@ -2,7 +2,9 @@ package com.example.taskPro.security;
 
 import com.example.taskPro.exception.UserNotFoundException;
 import com.example.taskPro.model.User;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -13,22 +15,26 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
     @Value("${jwt.secret}")
     private String secretKey;
-    private static final long EXPIRATION_TIME = 86400000;
+    public static final long EXPIRATION_TIME = 86400000;
     private Key key;
+    private JwtParser parser;
 
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
-    // ✅ Генерация JWT токена
+    // ✅ Генерация JWT токена (jti нужен для отзыва конкретного токена)
     public String generateToken(Long userId, String email) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(email)
                 .claim("userId", userId)
                 .setIssuedAt(new Date())
@@ -39,18 +45,24 @@ public class JwtUtil {
 
     // ✅ Извлечение userId из токена
     public Long extractUserId(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .get("userId", Long.class);
     }
 
+    // ✅ Разбор токена за один проход: claims валидного токена или null
+    public Claims parseClaims(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     // ✅ Валидация токена
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (JwtException e) {
             return false;
@@ -62,6 +74,11 @@ public class JwtUtil {
         return validateAuthenticationAndExtractUser(authentication).getId();
     }
 
+    // ✅ Пользователь, загруженный JwtFilter при разборе токена (без повторного запроса к базе)
+    public User getUserFromAuth(Authentication authentication) {
+        return validateAuthenticationAndExtractUser(authentication);
+    }
+
     // ✅ Универсальный метод проверки аутентификации и получения объекта пользователя
     private User validateAuthenticationAndExtractUser(Authentication authentication) {
         if (authentication == null || authentication.getPrincipal() == null) {
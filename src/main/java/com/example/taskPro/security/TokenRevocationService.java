@@ -0,0 +1,122 @@
+package com.example.taskPro.security;
+
+import com.example.taskPro.event.EntityChangedEvent;
+import com.example.taskPro.invalidation.EntityType;
+import com.example.taskPro.invalidation.InvalidationBus;
+import com.example.taskPro.model.RevokedToken;
+import com.example.taskPro.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Проверка отзыва токена без обращения к базе: фильтр Блума отсекает подавляющее большинство
+// неотозванных токенов, точное множество исключает ложные срабатывания.
+// Состояние восстанавливается из revoked_tokens при старте и досинхронизируется с другими узлами
+// сразу по сообщению шины инвалидации, а периодическая синхронизация страхует от потерянных сообщений
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final InvalidationBus invalidationBus;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // jti -> момент истечения токена (epoch millis)
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+    private volatile int filterCapacity = MIN_CAPACITY;
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::remember);
+        lastSync = now;
+        rebuildFilter();
+        invalidationBus.addListener(this::onInvalidation);
+        log.info("Загружено отозванных токенов: {}", revoked.size());
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    @Transactional
+    public void revoke(String jti, Long userId, LocalDateTime expiresAt) {
+        revokedTokenRepository.insertIfAbsent(jti, userId, expiresAt);
+        remember(jti, toMillis(expiresAt));
+        eventPublisher.publishEvent(EntityChangedEvent.of(EntityType.TOKEN, jti));
+    }
+
+    // Подтягивает отзывы, сделанные на других узлах
+    @Scheduled(fixedDelayString = "${taskpro.revocation.sync-interval-ms:15000}")
+    public void syncFromDatabase() {
+        // Небольшое перекрытие окна, чтобы не потерять строки из транзакций, закоммиченных с опозданием
+        LocalDateTime since = lastSync.minusSeconds(30);
+        lastSync = LocalDateTime.now();
+        revokedTokenRepository.findByRevokedAtAfter(since).forEach(this::remember);
+    }
+
+    // Удаляет истёкшие токены из памяти и базы; фильтр Блума пересобирается, так как не умеет удалять
+    @Scheduled(fixedDelayString = "${taskpro.revocation.prune-interval-ms:600000}")
+    @Transactional
+    public void pruneExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        rebuildFilter();
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Удалено истёкших отозванных токенов: {}", deleted);
+        }
+    }
+
+    private void onInvalidation(Set<String> keys) {
+        if (keys.contains(InvalidationBus.ALL) || keys.stream().anyMatch(EntityType.TOKEN::matches)) {
+            syncFromDatabase();
+        }
+    }
+
+    private void remember(RevokedToken token) {
+        remember(token.getJti(), toMillis(token.getExpiresAt()));
+    }
+
+    private void remember(String jti, long expiresAt) {
+        // Сначала точное множество, затем фильтр: проверка читает их в обратном порядке
+        revoked.put(jti, expiresAt);
+        filter.add(jti);
+        if (revoked.size() > filterCapacity) {
+            rebuildFilter();
+        }
+    }
+
+    private synchronized void rebuildFilter() {
+        int capacity = Math.max(MIN_CAPACITY, revoked.size() * 2);
+        BloomFilter rebuilt = new BloomFilter(capacity, FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+        filterCapacity = capacity;
+        // Ключи, добавленные во время пересборки, могли попасть только в старый фильтр
+        revoked.keySet().forEach(rebuilt::add);
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.dto.analyticsDto.CycleTimeReportDto;
+import com.example.taskPro.dto.analyticsDto.CycleTimeStatsDto;
+import com.example.taskPro.dto.analyticsDto.DurationStatsDto;
+import com.example.taskPro.exception.InvalidTaskPriorityException;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.service.interfaces.AnalyticsServiceInterface;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Отчёт строится по готовым гистограммам из cycle_time_histogram (их ведёт триггер tasks_track_status),
+// поэтому его стоимость зависит от числа групп и корзин, а не от числа задач
+@Service
+@RequiredArgsConstructor
+public class AnalyticsService implements AnalyticsServiceInterface {
+    private static final String HISTOGRAM_SQL = "SELECT executor_id, priority, metric, bucket, count"
+            + " FROM cycle_time_histogram"
+            + " WHERE (CAST(? AS BIGINT) IS NULL OR executor_id = ?) AND (CAST(? AS VARCHAR) IS NULL OR priority = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public CycleTimeReportDto getCycleTime(Long executorId, String priority) {
+        String priorityName = parsePriority(priority);
+
+        Map<String, CycleTimeHistogram[]> groups = new TreeMap<>();
+        CycleTimeHistogram totalLead = new CycleTimeHistogram();
+        CycleTimeHistogram totalCycle = new CycleTimeHistogram();
+        jdbcTemplate.query(HISTOGRAM_SQL, rs -> {
+            String key = rs.getLong("executor_id") + ":" + rs.getString("priority");
+            CycleTimeHistogram[] histograms = groups.computeIfAbsent(key,
+                    k -> new CycleTimeHistogram[]{new CycleTimeHistogram(), new CycleTimeHistogram()});
+            boolean lead = "LEAD".equals(rs.getString("metric"));
+            int bucket = rs.getInt("bucket");
+            long count = rs.getLong("count");
+            histograms[lead ? 0 : 1].add(bucket, count);
+            (lead ? totalLead : totalCycle).add(bucket, count);
+        }, executorId, executorId, priorityName, priorityName);
+
+        List<CycleTimeStatsDto> result = new ArrayList<>(groups.size());
+        groups.forEach((key, histograms) -> {
+            int separator = key.indexOf(':');
+            result.add(new CycleTimeStatsDto(Long.parseLong(key.substring(0, separator)),
+                    TaskPriority.valueOf(key.substring(separator + 1)),
+                    DurationStatsDto.of(histograms[0]), DurationStatsDto.of(histograms[1])));
+        });
+        return new CycleTimeReportDto(result,
+                new CycleTimeStatsDto(null, null, DurationStatsDto.of(totalLead), DurationStatsDto.of(totalCycle)));
+    }
+
+    private String parsePriority(String priority) {
+        if (priority == null) {
+            return null;
+        }
+        try {
+            return TaskPriority.valueOf(priority.trim().toUpperCase()).name();
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTaskPriorityException("Некорректный приоритет задачи: " + priority);
+        }
+    }
+}
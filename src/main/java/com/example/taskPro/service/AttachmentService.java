@@ -0,0 +1,251 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.event.EntityChangedEvent;
+import com.example.taskPro.exception.AttachmentNotFoundException;
+import com.example.taskPro.exception.AttachmentTooLargeException;
+import com.example.taskPro.exception.TaskNotFoundException;
+import com.example.taskPro.invalidation.EntityType;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskAttachment;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.TaskAttachmentRepository;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.security.JwtUtil;
+import com.example.taskPro.service.interfaces.AttachmentServiceInterface;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// Вложения хранятся на локальном диске, в базе только метаданные. Загрузка пишет тело запроса
+// в файл по частям, не держа его в памяти целиком; транзакция базы открывается только на сохранение метаданных
+@Service
+@Slf4j
+public class AttachmentService implements AttachmentServiceInterface {
+    private static final long TRANSFER_CHUNK_BYTES = 1024 * 1024;
+    private static final String PARTIAL_SUFFIX = ".part";
+    private static final String ACCESS_DENIED = "Вы можете работать с вложениями только своих задач!";
+    // Файл без записи в базе младше этого возраста может принадлежать ещё идущей загрузке
+    private static final Duration ORPHAN_FILE_MIN_AGE = Duration.ofHours(1);
+    private static final int ORPHAN_CHECK_BATCH_SIZE = 1000;
+
+    private final TaskAttachmentRepository attachmentRepository;
+    private final TaskRepository taskRepository;
+    private final TaskAccessPolicy taskAccessPolicy;
+    private final JwtUtil jwtUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path storageDir;
+
+    @Value("${taskpro.attachments.max-size-bytes:104857600}")
+    private long maxSizeBytes;
+
+    public AttachmentService(TaskAttachmentRepository attachmentRepository, TaskRepository taskRepository,
+                             TaskAccessPolicy taskAccessPolicy, JwtUtil jwtUtil,
+                             TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                             @Value("${taskpro.attachments.dir:./data/attachments}") String storageDir) {
+        this.attachmentRepository = attachmentRepository;
+        this.taskRepository = taskRepository;
+        this.taskAccessPolicy = taskAccessPolicy;
+        this.jwtUtil = jwtUtil;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.storageDir = Paths.get(storageDir).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.storageDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось создать каталог вложений " + this.storageDir, e);
+        }
+    }
+
+    @Override
+    public TaskAttachment upload(Long taskId, String fileName, String contentType, InputStream content,
+                                 Authentication authentication) {
+        User user = checkAccess(taskId, authentication);
+
+        String storageKey = UUID.randomUUID().toString();
+        Path partial = storageDir.resolve(storageKey + PARTIAL_SUFFIX);
+        Path target = storageDir.resolve(storageKey);
+        MessageDigest digest = sha256();
+        long size = 0;
+        try {
+            try (FileChannel out = FileChannel.open(partial, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                 ReadableByteChannel in = Channels.newChannel(new DigestInputStream(content, digest))) {
+                long transferred;
+                while ((transferred = out.transferFrom(in, size, TRANSFER_CHUNK_BYTES)) > 0) {
+                    size += transferred;
+                    if (size > maxSizeBytes) {
+                        throw new AttachmentTooLargeException("Размер вложения превышает " + maxSizeBytes + " байт");
+                    }
+                }
+                out.force(true);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(partial);
+            throw new UncheckedIOException("Не удалось сохранить вложение", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(partial);
+            throw e;
+        }
+
+        TaskAttachment metadata = TaskAttachment.builder()
+                .taskId(taskId)
+                .uploaderId(user.getId())
+                .fileName(sanitizeFileName(fileName))
+                .contentType(contentType == null || contentType.isBlank() ? "application/octet-stream" : contentType)
+                .size(size)
+                .sha256(HexFormat.of().formatHex(digest.digest()))
+                .storageKey(storageKey)
+                .build();
+        TaskAttachment attachment;
+        try {
+            attachment = transactionTemplate.execute(status -> {
+                TaskAttachment saved = attachmentRepository.save(metadata);
+                eventPublisher.publishEvent(EntityChangedEvent.of(EntityType.TASK_ATTACHMENTS, taskId));
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            deleteQuietly(target);
+            throw e;
+        }
+        log.info("Пользователь {} загрузил вложение {} к задаче {} ({} байт)", user.getId(), attachment.getId(),
+                taskId, size);
+        return attachment;
+    }
+
+    @Override
+    public List<TaskAttachment> getAttachments(Long taskId, Authentication authentication) {
+        checkAccess(taskId, authentication);
+        return attachmentRepository.findByTaskIdOrderById(taskId);
+    }
+
+    @Override
+    public TaskAttachment getAttachment(Long taskId, Long attachmentId, Authentication authentication) {
+        checkAccess(taskId, authentication);
+        return attachmentRepository.findByIdAndTaskId(attachmentId, taskId)
+                .orElseThrow(() -> new AttachmentNotFoundException("Вложение с ID " + attachmentId + " не найдено"));
+    }
+
+    @Override
+    public Path resolveFile(TaskAttachment attachment) {
+        return storageDir.resolve(attachment.getStorageKey());
+    }
+
+    // Задачи удаляются разными путями (удаление, массовое удаление), поэтому вложения удалённых задач
+    // и файлы оборванных загрузок собираются периодически, а не в момент удаления
+    @Override
+    @Scheduled(fixedDelayString = "${taskpro.attachments.cleanup-interval-ms:3600000}",
+            initialDelayString = "${taskpro.attachments.cleanup-initial-delay-ms:600000}")
+    public int removeOrphans() {
+        List<String> orphanKeys = transactionTemplate.execute(status -> attachmentRepository.deleteOrphans());
+        int removed = 0;
+        for (String storageKey : orphanKeys) {
+            removed += deleteQuietly(storageDir.resolve(storageKey)) ? 1 : 0;
+        }
+
+        Instant cutoff = Instant.now().minus(ORPHAN_FILE_MIN_AGE);
+        List<Path> candidates = new ArrayList<>(ORPHAN_CHECK_BATCH_SIZE);
+        try (Stream<Path> files = Files.list(storageDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    continue;
+                }
+                if (file.getFileName().toString().endsWith(PARTIAL_SUFFIX)) {
+                    removed += deleteQuietly(file) ? 1 : 0;
+                    continue;
+                }
+                candidates.add(file);
+                if (candidates.size() == ORPHAN_CHECK_BATCH_SIZE) {
+                    removed += removeUnknownFiles(candidates);
+                    candidates.clear();
+                }
+            }
+            removed += removeUnknownFiles(candidates);
+        } catch (IOException e) {
+            log.warn("Не удалось просмотреть каталог вложений {}: {}", storageDir, e.getMessage());
+        }
+
+        if (removed > 0) {
+            log.info("Удалено файлов вложений без задач: {}", removed);
+        }
+        return removed;
+    }
+
+    // Удаляет файлы, для которых нет записи в task_attachments; ключи проверяются одним запросом на пачку
+    private int removeUnknownFiles(List<Path> files) {
+        if (files.isEmpty()) {
+            return 0;
+        }
+        Set<String> known = attachmentRepository.findExistingStorageKeys(
+                files.stream().map(file -> file.getFileName().toString()).toList());
+        int removed = 0;
+        for (Path file : files) {
+            if (!known.contains(file.getFileName().toString())) {
+                removed += deleteQuietly(file) ? 1 : 0;
+            }
+        }
+        return removed;
+    }
+
+    private User checkAccess(Long taskId, Authentication authentication) {
+        User user = jwtUtil.getUserFromAuth(authentication);
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Задача с ID " + taskId + " не найдена"));
+        taskAccessPolicy.checkExecutorOrAdmin(task, user, ACCESS_DENIED);
+        return user;
+    }
+
+    // Из имени убираются путь и управляющие символы: оно попадает в Content-Disposition при скачивании
+    private String sanitizeFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1).replaceAll("[\\p{Cntrl}\"]", "_").trim();
+        if (name.isEmpty()) {
+            return "file";
+        }
+        return name.length() > 255 ? name.substring(0, 255) : name;
+    }
+
+    private boolean deleteQuietly(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить файл вложения {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
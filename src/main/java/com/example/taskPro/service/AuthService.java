@@ -1,20 +1,32 @@
 package com.example.taskPro.service;
 
+import com.example.taskPro.event.EntityChangedEvent;
 import com.example.taskPro.exception.InvalidUserRoleException;
+import com.example.taskPro.exception.UnauthorizedActionException;
 import com.example.taskPro.exception.UserAlreadyExistsException;
 import com.example.taskPro.exception.UserNotFoundException;
+import com.example.taskPro.invalidation.EntityType;
+import com.example.taskPro.logging.LogSampler;
 import com.example.taskPro.model.Role;
 import com.example.taskPro.model.User;
 import com.example.taskPro.repository.UserRepository;
 import com.example.taskPro.security.JwtUtil;
+import com.example.taskPro.security.TokenRevocationService;
 import com.example.taskPro.service.interfaces.AuthServiceInterface;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import com.example.taskPro.dto.securityDto.AuthRequestDto;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,11 +34,17 @@ public class AuthService implements AuthServiceInterface {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final ApplicationEventPublisher eventPublisher;
+    // Неудачные входы при переборе паролей идут потоком, в лог попадает не больше 20 в секунду
+    private final LogSampler failedLoginSampler = new LogSampler(Duration.ofSeconds(1), 20);
+    // Отказы в регистрации так же пригодны для перебора email, поэтому ограничены тем же образом
+    private final LogSampler rejectedRegistrationSampler = new LogSampler(Duration.ofSeconds(1), 20);
 
     @Override
     public String register(AuthRequestDto request) {
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-            log.warn("Попытка регистрации с уже существующим email: {}", request.getEmail());
+            logRejectedRegistration("email уже используется", request.getEmail());
             throw new UserAlreadyExistsException("Email уже используется!");
         }
 
@@ -34,7 +52,7 @@ public class AuthService implements AuthServiceInterface {
         try {
             userRole = Role.valueOf(request.getRole().toUpperCase());
         } catch (IllegalArgumentException e) {
-            log.error("Некорректная роль при регистрации: {}", request.getRole());
+            logRejectedRegistration("некорректная роль", request.getEmail());
             throw new InvalidUserRoleException("Некорректная роль: " + request.getRole());
         }
 
@@ -45,6 +63,7 @@ public class AuthService implements AuthServiceInterface {
                 .build();
 
         userRepository.save(user);
+        eventPublisher.publishEvent(EntityChangedEvent.of(EntityType.USER, user.getId()));
         return jwtUtil.generateToken(user.getId(), user.getEmail());
     }
 
@@ -52,15 +71,59 @@ public class AuthService implements AuthServiceInterface {
     public String login(AuthRequestDto request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> {
-                    log.warn("Неудачная попытка входа: email {} не найден", request.getEmail());
+                    logFailedLogin("email не найден", request.getEmail());
                     return new UserNotFoundException("Неверный email или пароль!");
                 });
 
         if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            log.warn("Неудачная попытка входа: неправильный пароль для email {}", request.getEmail());
+            logFailedLogin("неправильный пароль", request.getEmail());
             throw new BadCredentialsException("Неверный email или пароль!");
         }
 
         return jwtUtil.generateToken(user.getId(), user.getEmail());
     }
+
+    @Override
+    public void logout(String token) {
+        Claims claims = jwtUtil.parseClaims(token);
+        if (claims == null || claims.getId() == null) {
+            throw new BadCredentialsException("Некорректный токен");
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+        tokenRevocationService.revoke(claims.getId(), claims.get("userId", Long.class), expiresAt);
+    }
+
+    @Override
+    public void revokeToken(String jti, Authentication authentication) {
+        User admin = jwtUtil.getUserFromAuth(authentication);
+        if (admin.getRole() != Role.ADMIN) {
+            throw new UnauthorizedActionException("Только администратор может отзывать токены!");
+        }
+        // Срок жизни токена неизвестен, поэтому запись хранится максимально возможное время
+        LocalDateTime expiresAt = LocalDateTime.now().plusNanos(JwtUtil.EXPIRATION_TIME * 1_000_000);
+        tokenRevocationService.revoke(jti, null, expiresAt);
+        log.info("Администратор {} отозвал токен {}", admin.getId(), jti);
+    }
+
+    private void logFailedLogin(String reason, String email) {
+        long suppressed = failedLoginSampler.sample();
+        if (suppressed >= 0) {
+            log.warn("Неудачная попытка входа ({}) для {}, пропущено похожих сообщений: {}",
+                    reason, maskEmail(email), suppressed);
+        }
+    }
+
+    private void logRejectedRegistration(String reason, String email) {
+        long suppressed = rejectedRegistrationSampler.sample();
+        if (suppressed >= 0) {
+            log.warn("Отказ в регистрации ({}) для {}, пропущено похожих сообщений: {}",
+                    reason, maskEmail(email), suppressed);
+        }
+    }
+
+    // В лог попадают только первая буква и домен
+    private String maskEmail(String email) {
+        int at = email == null ? -1 : email.indexOf('@');
+        return at > 0 ? email.charAt(0) + "***" + email.substring(at) : "***";
+    }
 }
\ No newline at end of file
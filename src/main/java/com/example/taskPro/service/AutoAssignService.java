@@ -0,0 +1,112 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.dto.taskDto.AutoAssignResultDto;
+import com.example.taskPro.event.EntityChangedEvent;
+import com.example.taskPro.exception.UnauthorizedActionException;
+import com.example.taskPro.invalidation.EntityType;
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.security.JwtUtil;
+import com.example.taskPro.service.interfaces.AutoAssignServiceInterface;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.security.core.Authentication;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AutoAssignService implements AutoAssignServiceInterface {
+    // Веса должны совпадать с TaskPriority.getWeight()
+    private static final String EXECUTOR_LOAD_SQL = "SELECT u.id, COALESCE(SUM(CASE t.priority"
+            + " WHEN 'HIGH' THEN 3 WHEN 'MEDIUM' THEN 2 WHEN 'LOW' THEN 1 END), 0) AS load"
+            + " FROM users u LEFT JOIN tasks t ON t.executor_id = u.id AND t.status <> 'COMPLETED'"
+            + " WHERE u.role = 'USER' GROUP BY u.id";
+
+    private static final String UNASSIGNED_CHUNK_SQL = "SELECT id FROM tasks"
+            + " WHERE executor_id IS NULL AND status <> 'COMPLETED' AND priority = ? AND id > ?"
+            + " ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final JwtUtil jwtUtil;
+
+    @Value("${taskpro.auto-assign.chunk-size:1000}")
+    private int chunkSize;
+
+    @Override
+    public AutoAssignResultDto autoAssign(Authentication authentication) {
+        User admin = jwtUtil.getUserFromAuth(authentication);
+        if (admin.getRole() != Role.ADMIN) {
+            throw new UnauthorizedActionException("Только администратор может выполнять это действие!");
+        }
+
+        Map<Long, Long> loads = new HashMap<>();
+        jdbcTemplate.query(EXECUTOR_LOAD_SQL, rs -> {
+            loads.put(rs.getLong(1), rs.getLong(2));
+        });
+        if (loads.isEmpty()) {
+            log.warn("Автоназначение пропущено: нет пользователей с ролью USER");
+            return new AutoAssignResultDto(0, 0);
+        }
+
+        WorkloadBalancer balancer = new WorkloadBalancer(loads);
+        long assigned = 0;
+        // Сначала раздаём задачи с высоким приоритетом, пока у исполнителей минимальная нагрузка
+        for (TaskPriority priority : TaskPriority.values()) {
+            long lastId = 0;
+            List<Long> taskIds;
+            do {
+                taskIds = jdbcTemplate.queryForList(UNASSIGNED_CHUNK_SQL, Long.class, priority.name(), lastId, chunkSize);
+                if (taskIds.isEmpty()) {
+                    break;
+                }
+                lastId = taskIds.get(taskIds.size() - 1);
+                assigned += assignChunk(taskIds, priority, balancer);
+            } while (taskIds.size() == chunkSize);
+        }
+
+        log.info("Автоназначение: распределено {} задач между {} исполнителями", assigned, loads.size());
+        return new AutoAssignResultDto(assigned, loads.size());
+    }
+
+    private long assignChunk(List<Long> taskIds, TaskPriority priority, WorkloadBalancer balancer) {
+        List<Long> executorIds = new ArrayList<>(taskIds.size());
+        for (int i = 0; i < taskIds.size(); i++) {
+            executorIds.add(balancer.assign(priority));
+        }
+
+        List<Long> assignedIds = transactionTemplate.execute(status -> {
+            List<Long> ids = taskRepository.assignExecutors(taskIds, executorIds);
+            // Ключи уходят подписчикам только после коммита
+            for (Long taskId : ids) {
+                eventPublisher.publishEvent(EntityChangedEvent.of(EntityType.TASK, taskId));
+            }
+            return ids;
+        });
+
+        // Задачу могли назначить вручную параллельно — её вес возвращается исполнителю из плана
+        Set<Long> assigned = new HashSet<>(assignedIds);
+        for (int i = 0; i < taskIds.size(); i++) {
+            if (!assigned.contains(taskIds.get(i))) {
+                balancer.release(executorIds.get(i), priority);
+            }
+        }
+        return assignedIds.size();
+    }
+}
\ No newline at end of file
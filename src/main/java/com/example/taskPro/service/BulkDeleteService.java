@@ -0,0 +1,147 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.dto.taskDto.BulkDeleteRequestDto;
+import com.example.taskPro.event.EntityChangedEvent;
+import com.example.taskPro.event.TaskDeadlineChangedEvent;
+import com.example.taskPro.exception.BulkDeleteJobNotFoundException;
+import com.example.taskPro.exception.InvalidTaskQueryException;
+import com.example.taskPro.exception.UnauthorizedActionException;
+import com.example.taskPro.invalidation.EntityType;
+import com.example.taskPro.model.BulkDeleteJob;
+import com.example.taskPro.model.BulkDeleteJobPhase;
+import com.example.taskPro.model.BulkDeleteJobStatus;
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.BulkDeleteJobRepository;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.security.JwtUtil;
+import com.example.taskPro.service.interfaces.BulkDeleteServiceInterface;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Массовое удаление задач небольшими пачками, каждая в своей транзакции: блокировки держатся недолго,
+// WAL пишется равномерно. За один запуск на задание тратится не больше time-budget-ms,
+// остальное время интервала база свободна для обычной нагрузки
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkDeleteService implements BulkDeleteServiceInterface {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final BulkDeleteJobRepository bulkDeleteJobRepository;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JwtUtil jwtUtil;
+
+    @Value("${taskpro.bulk-delete.chunk-size:200}")
+    private int chunkSize;
+
+    @Value("${taskpro.bulk-delete.time-budget-ms:250}")
+    private long timeBudgetMs;
+
+    @Override
+    public BulkDeleteJob createJob(BulkDeleteRequestDto request, Authentication authentication) {
+        User admin = jwtUtil.getUserFromAuth(authentication);
+        if (admin.getRole() != Role.ADMIN) {
+            throw new UnauthorizedActionException("Только администратор может выполнять это действие!");
+        }
+        if (request.getAuthorId() == null && request.getCompletedBefore() == null) {
+            throw new InvalidTaskQueryException("Укажите authorId и/или completedBefore");
+        }
+
+        BulkDeleteJob job = bulkDeleteJobRepository.save(BulkDeleteJob.builder()
+                .authorId(request.getAuthorId())
+                .completedBefore(request.getCompletedBefore())
+                .status(BulkDeleteJobStatus.PENDING)
+                .phase(BulkDeleteJobPhase.TASKS)
+                .maxTaskId(taskRepository.findMaxId())
+                .createdBy(admin.getId())
+                .build());
+        log.info("Администратор {} создал задание массового удаления {}", admin.getId(), job.getId());
+        return job;
+    }
+
+    @Override
+    public BulkDeleteJob getJob(Long jobId) {
+        return bulkDeleteJobRepository.findById(jobId)
+                .orElseThrow(() -> new BulkDeleteJobNotFoundException("Задание с ID " + jobId + " не найдено"));
+    }
+
+    // Незавершённые задания хранятся в базе, поэтому после перезапуска продолжаются с сохранённого курсора
+    @Override
+    @Scheduled(fixedDelayString = "${taskpro.bulk-delete.interval-ms:1000}",
+            initialDelayString = "${taskpro.bulk-delete.initial-delay-ms:10000}")
+    public int processJobs() {
+        int chunks = 0;
+        for (Long jobId : bulkDeleteJobRepository.findActiveIds()) {
+            long deadline = System.nanoTime() + timeBudgetMs * 1_000_000;
+            try {
+                Boolean hasMore;
+                do {
+                    hasMore = transactionTemplate.execute(status -> processChunk(jobId));
+                    chunks++;
+                } while (Boolean.TRUE.equals(hasMore) && System.nanoTime() < deadline);
+            } catch (RuntimeException e) {
+                // Пачка откатилась вместе с прогрессом, задание повторится при следующем запуске
+                log.warn("Ошибка массового удаления, задание {}: {}", jobId, e.getMessage());
+                String error = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+                transactionTemplate.executeWithoutResult(status -> bulkDeleteJobRepository.updateLastError(jobId,
+                        error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error));
+            }
+        }
+        return chunks;
+    }
+
+    // Пачка задач и прогресс задания фиксируются одной транзакцией
+    private boolean processChunk(Long jobId) {
+        BulkDeleteJob job = bulkDeleteJobRepository.lockActive(jobId).orElse(null);
+        if (job == null) {
+            return false;
+        }
+        if (job.getStatus() == BulkDeleteJobStatus.PENDING) {
+            job.setStatus(BulkDeleteJobStatus.RUNNING);
+            job.setStartedAt(LocalDateTime.now());
+        }
+
+        boolean archive = job.getPhase() == BulkDeleteJobPhase.ARCHIVE;
+        List<Long> deletedIds = archive
+                ? taskRepository.deleteArchivedChunk(job.getAuthorId(), job.getCompletedBefore(),
+                        job.getLastTaskId(), job.getMaxTaskId(), chunkSize)
+                : taskRepository.deleteChunk(job.getAuthorId(), job.getCompletedBefore(),
+                        job.getLastTaskId(), job.getMaxTaskId(), chunkSize);
+        // Пачка может оказаться неполной, если строку успели изменить, поэтому признак конца — пустая пачка
+        if (deletedIds.isEmpty() && !archive) {
+            // Задачи, архивированные до прохода курсора, остались в архиве: тем же курсором проходим его
+            job.setPhase(BulkDeleteJobPhase.ARCHIVE);
+            job.setLastTaskId(0);
+            return true;
+        }
+        if (deletedIds.isEmpty()) {
+            job.setStatus(BulkDeleteJobStatus.COMPLETED);
+            job.setFinishedAt(LocalDateTime.now());
+            log.info("Задание массового удаления {} завершено, удалено задач: {}", jobId, job.getDeletedCount());
+            return false;
+        }
+
+        job.setLastTaskId(deletedIds.get(deletedIds.size() - 1));
+        job.setDeletedCount(job.getDeletedCount() + deletedIds.size());
+        job.setLastError(null);
+        for (Long taskId : deletedIds) {
+            if (!archive) {
+                eventPublisher.publishEvent(new TaskDeadlineChangedEvent(taskId, null));
+            }
+            eventPublisher.publishEvent(EntityChangedEvent.of(EntityType.TASK, taskId));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.taskPro.service;
+
+// Диапазон байтов из заголовка Range (RFC 9110), концы включительно
+public record ByteRange(long start, long end) {
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    // null — заголовок не разобран или содержит несколько диапазонов: по RFC такой Range можно
+    // проигнорировать и отдать файл целиком. Невыполнимый диапазон — IllegalArgumentException (ответ 416)
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // bytes=-N: последние N байт
+                long suffix = Long.parseLong(last);
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || size == 0) {
+                    throw new IllegalArgumentException("Невыполнимый диапазон: " + header);
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            Long lastByte = last.isEmpty() ? null : Long.parseLong(last);
+            if (start < 0 || lastByte != null && lastByte < start) {
+                return null;
+            }
+            if (start >= size) {
+                throw new IllegalArgumentException("Невыполнимый диапазон: " + header);
+            }
+            return new ByteRange(start, lastByte == null ? size - 1 : Math.min(lastByte, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package com.example.taskPro.service;
 
+import com.example.taskPro.event.EntityChangedEvent;
 import com.example.taskPro.exception.TaskNotFoundException;
-import com.example.taskPro.exception.UnauthorizedActionException;
 import com.example.taskPro.exception.UserNotFoundException;
+import com.example.taskPro.invalidation.EntityType;
 import com.example.taskPro.model.Comment;
-import com.example.taskPro.model.Role;
 import com.example.taskPro.model.Task;
 import com.example.taskPro.model.User;
 import com.example.taskPro.repository.CommentRepository;
@@ -13,6 +13,7 @@ import com.example.taskPro.repository.UserRepository;
 import com.example.taskPro.security.JwtUtil;
 import com.example.taskPro.service.interfaces.CommentServiceInterface;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.security.core.Authentication;
@@ -26,6 +27,8 @@ public class CommentService implements CommentServiceInterface {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final TaskAccessPolicy taskAccessPolicy;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Comment addComment(Long taskId, String content, Authentication authentication) {
@@ -38,10 +41,7 @@ public class CommentService implements CommentServiceInterface {
                 .orElseThrow(() -> new UserNotFoundException("Пользователь с ID " + authorId + " не найден"));
 
         // Проверяем права: админ может комментировать любую задачу, а юзер только свою
-        if (author.getRole() == Role.USER &&
-                (task.getExecutor() == null || !task.getExecutor().getId().equals(authorId))) {
-            throw new UnauthorizedActionException("Вы можете комментировать только свои задачи!");
-        }
+        taskAccessPolicy.checkExecutorOrAdmin(task, author, "Вы можете комментировать только свои задачи!");
 
         Comment comment = Comment.builder()
                 .task(task)
@@ -49,7 +49,12 @@ public class CommentService implements CommentServiceInterface {
                 .content(content)
                 .build();
 
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        // Счётчик обновляется инкрементом в той же транзакции, без пересчёта по comments
+        taskRepository.incrementCommentCount(taskId, saved.getCreatedAt());
+        eventPublisher.publishEvent(EntityChangedEvent.of(EntityType.TASK_COMMENTS, taskId));
+        eventPublisher.publishEvent(EntityChangedEvent.of(EntityType.TASK, taskId));
+        return saved;
     }
 
     public List<Comment> getCommentsByTask(Long taskId) {
@@ -0,0 +1,56 @@
+package com.example.taskPro.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Логарифмическая гистограмма длительностей в миллисекундах: SUB_BUCKETS корзин на каждое удвоение.
+// Память ограничена числом корзин (~300 на диапазон до года), гистограммы складываются через merge.
+// Формула корзины совпадает с SQL-функцией cycle_time_bucket из V11
+public class CycleTimeHistogram {
+    static final int SUB_BUCKETS = 8;
+
+    private final TreeMap<Integer, Long> counts = new TreeMap<>();
+    private long total;
+
+    public static int bucketOf(long millis) {
+        return (int) Math.floor(SUB_BUCKETS * Math.log(Math.max(millis, 1)) / Math.log(2));
+    }
+
+    // Верхняя граница корзины: процентиль оценивается сверху, с погрешностью не больше ширины корзины
+    public static long upperBound(int bucket) {
+        return (long) Math.ceil(Math.pow(2, (bucket + 1) / (double) SUB_BUCKETS));
+    }
+
+    public void record(long millis) {
+        add(bucketOf(millis), 1);
+    }
+
+    public void add(int bucket, long count) {
+        counts.merge(bucket, count, Long::sum);
+        total += count;
+    }
+
+    public void merge(CycleTimeHistogram other) {
+        other.counts.forEach(this::add);
+    }
+
+    public long getCount() {
+        return total;
+    }
+
+    // percentile в диапазоне (0, 100]; для пустой гистограммы возвращается null
+    public Long percentile(double percentile) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = (long) Math.ceil(percentile / 100 * total);
+        long seen = 0;
+        for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+            seen += entry.getValue();
+            if (seen >= rank) {
+                return upperBound(entry.getKey());
+            }
+        }
+        return upperBound(counts.lastKey());
+    }
+}
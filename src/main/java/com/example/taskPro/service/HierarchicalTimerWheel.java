@@ -0,0 +1,156 @@
+package com.example.taskPro.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Иерархическое колесо таймеров: levels уровней по 64 слота, каждый следующий уровень в 64 раза грубее.
+// Постановка, отмена и срабатывание — O(1); на каждый срок приходится один узел фиксированного размера.
+// Сроки дальше горизонта (64^levels тиков) лежат в отдельном списке и перераскладываются при его обороте
+public class HierarchicalTimerWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    // Последняя строка — список сроков за горизонтом колеса
+    private final Entry[][] slots;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long currentTick;
+
+    public HierarchicalTimerWheel(long tickMillis, int levels, long startMillis) {
+        if (tickMillis <= 0 || levels <= 0 || levels * SLOT_BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Некорректные параметры колеса таймеров: tick="
+                    + tickMillis + ", levels=" + levels);
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.slots = new Entry[levels + 1][SLOTS];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    // Ставит или переносит срок для id; уже наступивший срок сработает на ближайшем тике
+    public synchronized void schedule(long id, long deadlineMillis) {
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            unlink(entry);
+        } else {
+            entry = new Entry(id);
+            entries.put(id, entry);
+        }
+        // Округление вверх: срок никогда не срабатывает раньше времени
+        entry.deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        place(entry, currentTick + 1);
+    }
+
+    public synchronized boolean cancel(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    public synchronized boolean contains(long id) {
+        return entries.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Продвигает колесо до nowMillis и возвращает id, чей срок наступил
+    public synchronized List<Long> advanceTo(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        List<Long> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+            Entry entry = takeSlot(0, (int) (currentTick & SLOT_MASK));
+            while (entry != null) {
+                Entry next = entry.next;
+                entries.remove(entry.id);
+                expired.add(entry.id);
+                entry = next;
+            }
+        }
+        return expired;
+    }
+
+    // На границе слота верхнего уровня его содержимое перераскладывается по нижним уровням
+    private void cascade() {
+        for (int level = levels; level >= 1; level--) {
+            long lowerBits = (1L << (SLOT_BITS * level)) - 1;
+            if ((currentTick & lowerBits) != 0) {
+                continue;
+            }
+            int slot = level == levels ? 0 : (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            Entry entry = takeSlot(level, slot);
+            while (entry != null) {
+                Entry next = entry.next;
+                place(entry, currentTick);
+                entry = next;
+            }
+        }
+    }
+
+    // Уровень — самый мелкий, на котором срок и текущий тик попадают в один слот родителя
+    private void place(Entry entry, long minTick) {
+        long tick = Math.max(entry.deadlineTick, minTick);
+        for (int level = 0; level < levels; level++) {
+            int parentShift = SLOT_BITS * (level + 1);
+            if ((tick >>> parentShift) == (currentTick >>> parentShift)) {
+                link(entry, level, (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK));
+                return;
+            }
+        }
+        link(entry, levels, 0);
+    }
+
+    private Entry takeSlot(int level, int slot) {
+        Entry head = slots[level][slot];
+        slots[level][slot] = null;
+        return head;
+    }
+
+    private void link(Entry entry, int level, int slot) {
+        Entry head = slots[level][slot];
+        entry.level = level;
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        slots[level][slot] = entry;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else if (slots[entry.level][entry.slot] == entry) {
+            slots[entry.level][entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static final class Entry {
+        private final long id;
+        private long deadlineTick;
+        private int level;
+        private int slot;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(long id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.model.OutboxEvent;
+import com.example.taskPro.notification.NotificationSink;
+import com.example.taskPro.repository.OutboxEventRepository;
+import com.example.taskPro.service.interfaces.OutboxDispatcherInterface;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "taskpro.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher implements OutboxDispatcherInterface {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationSink notificationSink;
+    private final TransactionTemplate transactionTemplate;
+    // Скорость доставки на узле (событий в секунду) считается по этому счётчику: rate(taskpro.outbox.delivered)
+    private final Counter deliveredCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+
+    @Value("${taskpro.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${taskpro.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${taskpro.outbox.backoff-initial-ms:1000}")
+    private long backoffInitialMs;
+
+    @Value("${taskpro.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository, NotificationSink notificationSink,
+                            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.notificationSink = notificationSink;
+        this.transactionTemplate = transactionTemplate;
+        this.deliveredCounter = meterRegistry.counter("taskpro.outbox.delivered");
+        this.failedCounter = meterRegistry.counter("taskpro.outbox.failed");
+        this.batchTimer = meterRegistry.timer("taskpro.outbox.batch");
+    }
+
+    // Каждая пачка обрабатывается в своей транзакции: строки заблокированы до удаления или переноса попытки,
+    // поэтому несколько узлов разбирают outbox параллельно без повторной доставки
+    @Override
+    @Scheduled(fixedDelayString = "${taskpro.outbox.poll-interval-ms:1000}",
+            initialDelayString = "${taskpro.outbox.initial-delay-ms:5000}")
+    public int dispatchPending() {
+        int total = 0;
+        int processed;
+        do {
+            processed = batchTimer.record(() -> transactionTemplate.execute(status -> dispatchBatch()));
+            total += processed;
+        } while (processed == batchSize);
+        return total;
+    }
+
+    private int dispatchBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockDueBatch(batchSize);
+        List<Long> deliveredIds = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                notificationSink.deliver(event);
+                deliveredIds.add(event.getId());
+            } catch (Exception e) {
+                scheduleRetry(event, e);
+            }
+        }
+
+        if (!deliveredIds.isEmpty()) {
+            outboxEventRepository.deleteAllByIdInBatch(deliveredIds);
+            deliveredCounter.increment(deliveredIds.size());
+        }
+        return events.size();
+    }
+
+    // Экспоненциальная задержка между попытками; после maxAttempts событие остаётся в таблице для разбора
+    private void scheduleRetry(OutboxEvent event, Exception e) {
+        failedCounter.increment();
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(truncate(String.valueOf(e.getMessage())));
+
+        if (attempts >= maxAttempts) {
+            event.setNextAttemptAt(null);
+            log.error("Уведомление {} не доставлено после {} попыток: {}", event.getId(), attempts, e.getMessage());
+            return;
+        }
+
+        long delayMs = Math.min(backoffMaxMs, backoffInitialMs << Math.min(attempts - 1, 30));
+        event.setNextAttemptAt(LocalDateTime.now().plusNanos(delayMs * 1_000_000));
+        log.warn("Не удалось доставить уведомление {} (попытка {}), повтор через {} мс: {}",
+                event.getId(), attempts, delayMs, e.getMessage());
+    }
+
+    private String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
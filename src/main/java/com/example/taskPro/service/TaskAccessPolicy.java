@@ -0,0 +1,20 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.exception.UnauthorizedActionException;
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.User;
+import org.springframework.stereotype.Component;
+
+// Общие правила доступа к содержимому задачи (комментарии, вложения):
+// админ работает с любой задачей, пользователь — только с задачей, где он исполнитель
+@Component
+public class TaskAccessPolicy {
+
+    public void checkExecutorOrAdmin(Task task, User user, String deniedMessage) {
+        if (user.getRole() == Role.USER &&
+                (task.getExecutor() == null || !task.getExecutor().getId().equals(user.getId()))) {
+            throw new UnauthorizedActionException(deniedMessage);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.service.interfaces.TaskArchiveServiceInterface;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "taskpro.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiveService implements TaskArchiveServiceInterface {
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${taskpro.archive.completed-after-days:90}")
+    private int completedAfterDays;
+
+    @Value("${taskpro.archive.chunk-size:500}")
+    private int chunkSize;
+
+    // Каждая пачка переносится в своей транзакции, чтобы не держать блокировки на всём объёме
+    @Override
+    @Scheduled(fixedDelayString = "${taskpro.archive.interval-ms:600000}",
+            initialDelayString = "${taskpro.archive.initial-delay-ms:60000}")
+    public long archiveCompletedTasks() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(completedAfterDays);
+        long total = 0;
+        long moved;
+        do {
+            moved = transactionTemplate.execute(status -> taskRepository.archiveCompletedBefore(cutoff, chunkSize));
+            total += moved;
+        } while (moved == chunkSize);
+
+        if (total > 0) {
+            log.info("Перенесено в архив завершённых задач: {}", total);
+        }
+        return total;
+    }
+}
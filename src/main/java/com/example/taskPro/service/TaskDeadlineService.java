@@ -0,0 +1,129 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.event.TaskDeadlineChangedEvent;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.service.interfaces.TaskDeadlineServiceInterface;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+// Сроки незавершённых задач держатся в колесе таймеров в памяти; база затрагивается только
+// при загрузке на старте и в момент, когда срок действительно наступил.
+// Колесо знает только сроки, поставленные на этом узле или загруженные при его старте, поэтому
+// редкий досчёт по частичному индексу отмечает сроки, которые некому было отработать
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "taskpro.deadlines.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskDeadlineService implements TaskDeadlineServiceInterface {
+    private static final String PENDING_DEADLINES_SQL = "SELECT id, due_at FROM tasks"
+            + " WHERE due_at IS NOT NULL AND status <> 'COMPLETED' AND overdue_at IS NULL";
+
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HierarchicalTimerWheel wheel;
+
+    @Value("${taskpro.deadlines.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${taskpro.deadlines.retry-delay-ms:30000}")
+    private long retryDelayMs;
+
+    // Досчёт отстаёт от колеса на grace-ms, чтобы не перехватывать сроки, которые колесо вот-вот отработает
+    @Value("${taskpro.deadlines.catch-up-grace-ms:60000}")
+    private long catchUpGraceMs;
+
+    public TaskDeadlineService(TaskRepository taskRepository, JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${taskpro.deadlines.tick-ms:1000}") long tickMillis,
+                               @Value("${taskpro.deadlines.wheel-levels:4}") int wheelLevels) {
+        this.taskRepository = taskRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.wheel = new HierarchicalTimerWheel(tickMillis, wheelLevels, System.currentTimeMillis());
+    }
+
+    // Уже просроченные на момент старта задачи сработают на первом тике
+    @PostConstruct
+    public void load() {
+        jdbcTemplate.query(PENDING_DEADLINES_SQL, (RowCallbackHandler) rs ->
+                wheel.schedule(rs.getLong("id"), toMillis(rs.getTimestamp("due_at").toLocalDateTime())));
+        log.info("Загружено сроков задач в колесо таймеров: {}", wheel.size());
+    }
+
+    // Колесо обновляется только после фиксации транзакции, чтобы откаченное изменение не оставило таймер
+    @TransactionalEventListener
+    public void onDeadlineChanged(TaskDeadlineChangedEvent event) {
+        if (event.dueAt() == null) {
+            wheel.cancel(event.taskId());
+        } else {
+            wheel.schedule(event.taskId(), toMillis(event.dueAt()));
+        }
+    }
+
+    @Override
+    @Scheduled(fixedRateString = "${taskpro.deadlines.tick-ms:1000}")
+    public int fireDueDeadlines() {
+        long nowMillis = System.currentTimeMillis();
+        List<Long> expired = wheel.advanceTo(nowMillis);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.ofInstant(Instant.ofEpochMilli(nowMillis), ZoneId.systemDefault());
+        int marked = 0;
+        for (int from = 0; from < expired.size(); from += chunkSize) {
+            List<Long> chunk = expired.subList(from, Math.min(from + chunkSize, expired.size()));
+            try {
+                marked += transactionTemplate.execute(status -> taskRepository.markOverdue(chunk, now));
+            } catch (DataAccessException e) {
+                // Сроки не теряются: пачка вернётся в колесо и будет повторена позже
+                log.warn("Не удалось отметить просроченные задачи, повтор через {} мс: {}", retryDelayMs, e.getMessage());
+                chunk.forEach(taskId -> wheel.schedule(taskId, nowMillis + retryDelayMs));
+            }
+        }
+        if (marked > 0) {
+            log.info("Отмечено просроченных задач: {}", marked);
+        }
+        return marked;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${taskpro.deadlines.catch-up-interval-ms:300000}",
+            initialDelayString = "${taskpro.deadlines.catch-up-interval-ms:300000}")
+    public int catchUpOverdue() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusNanos(catchUpGraceMs * 1_000_000);
+        int marked = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> taskRepository.markOverdueBefore(cutoff, now, chunkSize));
+            marked += chunk;
+        } while (chunk == chunkSize);
+        if (marked > 0) {
+            log.info("Досчёт сроков: отмечено просроченных задач, пропущенных колесом: {}", marked);
+        }
+        return marked;
+    }
+
+    boolean isScheduled(long taskId) {
+        return wheel.contains(taskId);
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.dto.taskDto.TaskExportFormat;
+import com.example.taskPro.service.interfaces.TaskExportServiceInterface;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+// Потоковая выгрузка задач: строки читаются серверным курсором и сразу пишутся в ответ,
+// поэтому память не зависит от объёма выгрузки
+@Service
+@RequiredArgsConstructor
+public class TaskExportService implements TaskExportServiceInterface {
+    private static final String[] COLUMNS = {"id", "title", "description", "status", "priority",
+            "author_id", "executor_id", "created_at", "updated_at"};
+    private static final String[] JSON_NAMES = {"id", "title", "description", "status", "priority",
+            "authorId", "executorId", "createdAt", "updatedAt"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Value("${taskpro.export.fetch-size:2000}")
+    private int fetchSize;
+
+    // Курсор держит транзакцию открытой всё время выгрузки: порция курсора ограничена statement_timeout,
+    // а медленный клиент, который дольше idle-timeout не забирает данные, обрывает транзакцию
+    @Value("${taskpro.export.statement-timeout-ms:30000}")
+    private long statementTimeoutMs;
+
+    @Value("${taskpro.export.idle-timeout-ms:60000}")
+    private long idleTimeoutMs;
+
+    @Override
+    public long exportTasks(TaskExportFormat format, Long authorId, Long executorId, OutputStream out) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT ").append(String.join(", ", COLUMNS)).append(" FROM tasks");
+        if (authorId != null && executorId != null) {
+            sql.append(" WHERE author_id = ? OR executor_id = ?");
+            params.add(authorId);
+            params.add(executorId);
+        } else if (authorId != null) {
+            sql.append(" WHERE author_id = ?");
+            params.add(authorId);
+        } else if (executorId != null) {
+            sql.append(" WHERE executor_id = ?");
+            params.add(executorId);
+        }
+        sql.append(" ORDER BY id");
+
+        // Курсор PostgreSQL работает только внутри транзакции (autocommit=false)
+        Long written = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL statement_timeout = " + statementTimeoutMs);
+            jdbcTemplate.execute("SET LOCAL idle_in_transaction_session_timeout = " + idleTimeoutMs);
+            try {
+                RowWriter writer = format == TaskExportFormat.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+                jdbcTemplate.query(con -> {
+                    PreparedStatement ps = con.prepareStatement(sql.toString(),
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                    ps.setFetchSize(fetchSize);
+                    for (int i = 0; i < params.size(); i++) {
+                        ps.setObject(i + 1, params.get(i));
+                    }
+                    return ps;
+                }, (RowCallbackHandler) writer::write);
+                writer.finish();
+                return writer.count();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return written == null ? 0 : written;
+    }
+
+    private static String text(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return value == null ? null : value.toString();
+    }
+
+    // Значение CSV по RFC 4180: запятые, кавычки и переводы строк заключаются в кавычки, кавычки удваиваются
+    static void writeCsvValue(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private abstract static class RowWriter {
+        private long count;
+
+        void write(ResultSet rs) throws SQLException {
+            try {
+                writeRow(rs);
+                count++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        long count() {
+            return count;
+        }
+
+        abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+        abstract void finish() throws IOException;
+    }
+
+    private static class CsvRowWriter extends RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(String.join(",", JSON_NAMES));
+            writer.write('\n');
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvValue(writer, text(rs, i + 1));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private class NdjsonRowWriter extends RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Object value = rs.getObject(i + 1);
+                if (value instanceof Number number) {
+                    generator.writeNumberField(JSON_NAMES[i], number.longValue());
+                } else {
+                    generator.writeStringField(JSON_NAMES[i], text(rs, i + 1));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void finish() throws IOException {
+            generator.flush();
+        }
+    }
+}
@@ -1,13 +1,22 @@
 package com.example.taskPro.service;
 
+import com.example.taskPro.dto.taskDto.TaskChangesDto;
+import com.example.taskPro.dto.taskDto.TaskField;
+import com.example.taskPro.dto.taskDto.TaskSearchCriteria;
+import com.example.taskPro.dto.taskDto.TaskSort;
+import com.example.taskPro.event.EntityChangedEvent;
+import com.example.taskPro.event.TaskDeadlineChangedEvent;
 import com.example.taskPro.exception.*;
+import com.example.taskPro.invalidation.EntityType;
 import com.example.taskPro.model.*;
 import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.repository.TaskChange;
 import com.example.taskPro.repository.UserRepository;
 import com.example.taskPro.service.interfaces.TaskServiceInterface;
 import com.example.taskPro.security.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +24,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,6 +40,7 @@ public class TaskService implements TaskServiceInterface {
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final ApplicationEventPublisher eventPublisher;
 
     public Task getTaskById(Long id) {
         return taskRepository.findById(id)
@@ -30,108 +49,106 @@ public class TaskService implements TaskServiceInterface {
 
     @Transactional
     public Task createTask(Task task, Authentication authentication) {
-        Long adminId = jwtUtil.getEntityIdFromAuth(authentication);
-        User admin = validateAdmin(adminId);
+        User admin = validateAdmin(authentication);
         task.setAuthor(admin);
 
-        if (task.getExecutor() != null) {
-            User executor = userRepository.findById(task.getExecutor().getId())
-                    .orElseThrow(() -> {
-                        log.warn("Попытка назначения несуществующего исполнителя: {}", task.getExecutor().getId());
-                        return new UserNotFoundException("Исполнитель с ID " + task.getExecutor().getId() + " не найден");
-                    });
-            task.setExecutor(executor);
+        if (task.getExecutor() == null) {
+            return publishDeadline(taskRepository.save(task));
         }
 
-        return taskRepository.save(task);
+        task.setExecutor(findExecutor(task.getExecutor().getId()));
+        return publishDeadline(taskRepository.save(task));
     }
 
     @Transactional
     public Task updateTask(Long id, Task updatedTask, Authentication authentication) {
-        Long adminId = jwtUtil.getEntityIdFromAuth(authentication);
-        User admin = validateAdmin(adminId);
+        validateAdmin(authentication);
 
-        return taskRepository.findById(id)
-                .map(existingTask -> {
-                    existingTask.setTitle(updatedTask.getTitle());
-                    existingTask.setDescription(updatedTask.getDescription());
-                    existingTask.setStatus(updatedTask.getStatus());
-                    existingTask.setPriority(updatedTask.getPriority());
-
-                    if (updatedTask.getExecutor() != null) {
-                        User executor = userRepository.findById(updatedTask.getExecutor().getId())
-                                .orElseThrow(() -> new UserNotFoundException(
-                                        "Исполнитель с ID " + updatedTask.getExecutor().getId() + " не найден"));
-                        existingTask.setExecutor(executor);
-                    }
-
-                    return taskRepository.save(existingTask);
-                })
+        Task existingTask = taskRepository.findById(id)
                 .orElseThrow(() -> new TaskNotFoundException("Задача с ID " + id + " не найдена"));
+        existingTask.setTitle(updatedTask.getTitle());
+        existingTask.setDescription(updatedTask.getDescription());
+        existingTask.setStatus(updatedTask.getStatus());
+        existingTask.setPriority(updatedTask.getPriority());
+        existingTask.setDueAt(updatedTask.getDueAt());
+
+        if (updatedTask.getExecutor() == null) {
+            return publishDeadline(taskRepository.save(existingTask));
+        }
+
+        existingTask.setExecutor(findExecutor(updatedTask.getExecutor().getId()));
+        return publishDeadline(taskRepository.save(existingTask));
     }
 
     @Transactional
     public void deleteTask(Long id, Authentication authentication) {
-        Long adminId = jwtUtil.getEntityIdFromAuth(authentication);
-        User admin = validateAdmin(adminId);
+        validateAdmin(authentication);
 
-        if (!taskRepository.existsById(id)) {
+        if (taskRepository.deleteWithTombstone(id) == 0) {
             log.warn("Попытка удаления несуществующей задачи ID {}", id);
             throw new TaskNotFoundException("Задача с ID " + id + " не найдена");
         }
-
-        taskRepository.deleteById(id);
+        eventPublisher.publishEvent(new TaskDeadlineChangedEvent(id, null));
+        eventPublisher.publishEvent(EntityChangedEvent.of(EntityType.TASK, id));
     }
 
     @Transactional
     public Task assignExecutor(Long taskId, Long executorId, Authentication authentication) {
-        Long adminId = jwtUtil.getEntityIdFromAuth(authentication);
-        User admin = validateAdmin(adminId);
-        User executor = userRepository.findById(executorId)
-                .orElseThrow(() -> new UserNotFoundException("Пользователь с ID " + executorId + " не найден"));
+        validateAdmin(authentication);
 
-        return taskRepository.findById(taskId)
-                .map(task -> {
-                    task.setExecutor(executor);
-                    return taskRepository.save(task);
-                })
-                .orElseThrow(() -> new TaskNotFoundException("Задача с ID " + taskId + " не найдена"));
+        return taskRepository.assignExecutor(taskId, executorId)
+                .map(this::publishChange)
+                .orElseThrow(() -> userRepository.existsById(executorId)
+                        ? new TaskNotFoundException("Задача с ID " + taskId + " не найдена")
+                        : new UserNotFoundException("Пользователь с ID " + executorId + " не найден"));
     }
 
     @Transactional
     public Task updateTaskStatus(Long taskId, String status, Authentication authentication) {
         Long userId = jwtUtil.getEntityIdFromAuth(authentication);
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Задача с ID " + taskId + " не найдена"));
-
-        if (task.getExecutor() == null || !task.getExecutor().getId().equals(userId)) {
-            throw new UnauthorizedActionException("Вы не можете менять статус чужой задачи!");
-        }
 
+        TaskStatus newStatus;
         try {
-            task.setStatus(TaskStatus.valueOf(status.toUpperCase()));
+            newStatus = TaskStatus.valueOf(status.toUpperCase());
         } catch (IllegalArgumentException e) {
+            checkTaskOwner(taskId, userId);
             throw new InvalidTaskStatusException("Некорректный статус задачи: " + status);
         }
 
-        return taskRepository.save(task);
+        Task task = taskRepository.updateStatus(taskId, userId, newStatus)
+                .orElseThrow(() -> {
+                    checkTaskOwner(taskId, userId);
+                    return new UnauthorizedActionException("Вы не можете менять статус чужой задачи!");
+                });
+        return task.getDueAt() != null ? publishDeadline(task) : publishChange(task);
     }
 
     @Transactional
-    public Task updateTaskPriority(Long taskId, String priority, Authentication authentication) {
-        Long adminId = jwtUtil.getEntityIdFromAuth(authentication);
-        validateAdmin(adminId);
+    public Optional<Task> claimNextTask(Authentication authentication) {
+        User user = jwtUtil.getUserFromAuth(authentication);
+        if (user.getRole() != Role.USER) {
+            throw new UnauthorizedActionException("Брать задачи из очереди может только исполнитель!");
+        }
+        return taskRepository.claimNext(user.getId()).map(this::publishChange);
+    }
 
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Задача с ID " + taskId + " не найдена"));
+    @Transactional
+    public Task updateTaskPriority(Long taskId, String priority, Authentication authentication) {
+        validateAdmin(authentication);
 
+        TaskPriority newPriority;
         try {
-            task.setPriority(TaskPriority.valueOf(priority.toUpperCase()));
+            newPriority = TaskPriority.valueOf(priority.toUpperCase());
         } catch (IllegalArgumentException e) {
+            if (!taskRepository.existsById(taskId)) {
+                throw new TaskNotFoundException("Задача с ID " + taskId + " не найдена");
+            }
             throw new InvalidTaskPriorityException("Некорректный приоритет задачи: " + priority);
         }
 
-        return taskRepository.save(task);
+        return taskRepository.updatePriority(taskId, newPriority)
+                .map(this::publishChange)
+                .orElseThrow(() -> new TaskNotFoundException("Задача с ID " + taskId + " не найдена"));
     }
 
     @Transactional
@@ -141,28 +158,114 @@ public class TaskService implements TaskServiceInterface {
         return taskRepository.findById(taskId)
                 .map(task -> {
                     task.getComments().add("User " + userId + ": " + comment);
-                    return taskRepository.save(task);
+                    return publishChange(taskRepository.save(task));
                 })
                 .orElseThrow(() -> new TaskNotFoundException("Задача с ID " + taskId + " не найдена"));
     }
 
-    public Page<Task> getTasksFiltered(Long authorId, Long executorId, int page, int size) {
+    public Page<Task> getTasksFiltered(Long authorId, Long executorId, boolean includeArchived, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         if (authorId != null && executorId != null) {
-            return taskRepository.findByAuthorIdOrExecutorId(authorId, executorId, pageable);
+            return includeArchived
+                    ? taskRepository.findWithArchiveByAuthorIdOrExecutorId(authorId, executorId, pageable)
+                    : taskRepository.findByAuthorIdOrExecutorId(authorId, executorId, pageable);
         } else if (authorId != null) {
-            return taskRepository.findByAuthorId(authorId, pageable);
+            return getTasksByAuthor(authorId, includeArchived, page, size);
         } else if (executorId != null) {
-            return taskRepository.findByExecutorId(executorId, pageable);
+            return getTasksByExecutor(executorId, includeArchived, page, size);
         } else {
             throw new IllegalArgumentException("Должен быть указан либо authorId, "
                     + "либо executorId, иначе фильтрация невозможна.");
         }
     }
 
-    private User validateAdmin(Long adminId) {
-        User admin = userRepository.findById(adminId)
-                .orElseThrow(() -> new UserNotFoundException("Администратор с ID " + adminId + " не найден"));
+    // Незавершённые задачи с наступившим сроком, сначала самые давно просроченные
+    public Page<Task> getOverdueTasks(Long executorId, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        LocalDateTime now = LocalDateTime.now();
+        return executorId != null
+                ? taskRepository.findOverdueByExecutorId(executorId, now, pageable)
+                : taskRepository.findOverdue(now, pageable);
+    }
+
+    // Поиск по любому сочетанию фильтров; фильтрация, сортировка и пагинация выполняются в базе
+    public Page<Task> searchTasks(List<String> statuses, List<String> priorities, Long authorId, Long executorId,
+                                  boolean unassignedOnly, String sort, int page, int size) {
+        if (unassignedOnly && executorId != null) {
+            throw new InvalidTaskQueryException("Нельзя одновременно указать executorId и unassigned=true");
+        }
+        TaskSearchCriteria criteria = TaskSearchCriteria.builder()
+                .statuses(parseStatuses(statuses))
+                .priorities(parsePriorities(priorities))
+                .authorId(authorId)
+                .executorId(executorId)
+                .unassignedOnly(unassignedOnly)
+                .sort(TaskSort.parse(sort))
+                .build();
+        return taskRepository.search(criteria, PageRequest.of(page, size));
+    }
+
+    // Пользователь синхронизирует только свои задачи; без фильтра по исполнителю ленту читает администратор
+    @Transactional(readOnly = true)
+    public TaskChangesDto getChangesSince(long since, Long executorId, int limit, Authentication authentication) {
+        if (since < 0 || limit <= 0) {
+            throw new IllegalArgumentException("Некорректные параметры синхронизации: since=" + since + ", limit=" + limit);
+        }
+        User user = jwtUtil.getUserFromAuth(authentication);
+        if (user.getRole() != Role.ADMIN) {
+            if (executorId != null && !executorId.equals(user.getId())) {
+                throw new UnauthorizedActionException("Вы не можете синхронизировать чужие задачи!");
+            }
+            executorId = user.getId();
+        }
+
+        // Лишняя запись показывает, что за страницей есть ещё изменения
+        List<TaskChange> changes = taskRepository.findChanges(since, executorId, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+
+        Map<Long, Task> tasks = new HashMap<>();
+        List<Long> updatedIds = changes.stream().filter(change -> !change.removed()).map(TaskChange::taskId).toList();
+        taskRepository.findAllById(updatedIds).forEach(task -> tasks.put(task.getId(), task));
+
+        List<Task> changedTasks = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        long nextToken = since;
+        for (TaskChange change : changes) {
+            nextToken = change.changeSeq();
+            if (change.removed()) {
+                deletedIds.add(change.taskId());
+                continue;
+            }
+            // Задачу успели удалить или переназначить после выборки: об этом придёт более позднее изменение
+            Task task = tasks.get(change.taskId());
+            if (task != null && (executorId == null
+                    || (task.getExecutor() != null && executorId.equals(task.getExecutor().getId())))) {
+                changedTasks.add(task);
+            }
+        }
+
+        return new TaskChangesDto(changedTasks, deletedIds, nextToken, hasMore);
+    }
+
+    // Колесо таймеров обновляется после коммита; для завершённой задачи срок снимается
+    private Task publishDeadline(Task task) {
+        LocalDateTime dueAt = task.getStatus() == TaskStatus.COMPLETED ? null : task.getDueAt();
+        eventPublisher.publishEvent(new TaskDeadlineChangedEvent(task.getId(), dueAt));
+        return publishChange(task);
+    }
+
+    // Ключ задачи уходит на другие узлы после коммита, см. InvalidationBus
+    private Task publishChange(Task task) {
+        eventPublisher.publishEvent(EntityChangedEvent.of(EntityType.TASK, task.getId()));
+        return task;
+    }
+
+    // Пользователь уже загружен JwtFilter, поэтому роль проверяется без обращения к базе
+    private User validateAdmin(Authentication authentication) {
+        User admin = jwtUtil.getUserFromAuth(authentication);
 
         if (admin.getRole() != Role.ADMIN) {
             throw new UnauthorizedActionException("Только администратор может выполнять это действие!");
@@ -171,13 +274,77 @@ public class TaskService implements TaskServiceInterface {
         return admin;
     }
 
-    public Page<Task> getTasksByAuthor(Long authorId, int page, int size) {
+    // Исполнитель загружается целиком: задача возвращается клиенту вместе с ним
+    private User findExecutor(Long executorId) {
+        return userRepository.findById(executorId)
+                .orElseThrow(() -> {
+                    log.warn("Попытка назначения несуществующего исполнителя: {}", executorId);
+                    return new UserNotFoundException("Исполнитель с ID " + executorId + " не найден");
+                });
+    }
+
+    // Медленный путь для ошибок: уточняет, нет ли задачи вовсе или она чужая
+    private void checkTaskOwner(Long taskId, Long userId) {
+        if (!taskRepository.existsById(taskId)) {
+            throw new TaskNotFoundException("Задача с ID " + taskId + " не найдена");
+        }
+        if (!taskRepository.existsByIdAndExecutorId(taskId, userId)) {
+            throw new UnauthorizedActionException("Вы не можете менять статус чужой задачи!");
+        }
+    }
+
+    private Set<TaskStatus> parseStatuses(List<String> statuses) {
+        if (statuses == null) {
+            return Set.of();
+        }
+        Set<TaskStatus> result = EnumSet.noneOf(TaskStatus.class);
+        for (String status : statuses) {
+            try {
+                result.add(TaskStatus.valueOf(status.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidTaskStatusException("Некорректный статус задачи: " + status);
+            }
+        }
+        return result;
+    }
+
+    private Set<TaskPriority> parsePriorities(List<String> priorities) {
+        if (priorities == null) {
+            return Set.of();
+        }
+        Set<TaskPriority> result = EnumSet.noneOf(TaskPriority.class);
+        for (String priority : priorities) {
+            try {
+                result.add(TaskPriority.valueOf(priority.trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidTaskPriorityException("Некорректный приоритет задачи: " + priority);
+            }
+        }
+        return result;
+    }
+
+    // Вариант списка задач, в котором из базы читаются только перечисленные в fields колонки
+    public Page<Map<String, Object>> getTaskFieldsFiltered(String fields, Long authorId, Long executorId,
+                                                           boolean includeArchived, int page, int size) {
+        Set<TaskField> taskFields = TaskField.parse(fields);
+        if (authorId == null && executorId == null) {
+            throw new IllegalArgumentException("Должен быть указан либо authorId, "
+                    + "либо executorId, иначе фильтрация невозможна.");
+        }
+        return taskRepository.findFields(taskFields, authorId, executorId, includeArchived, PageRequest.of(page, size));
+    }
+
+    public Page<Task> getTasksByAuthor(Long authorId, boolean includeArchived, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return taskRepository.findByAuthorId(authorId, pageable);
+        return includeArchived
+                ? taskRepository.findWithArchiveByAuthorId(authorId, pageable)
+                : taskRepository.findByAuthorId(authorId, pageable);
     }
 
-    public Page<Task> getTasksByExecutor(Long executorId, int page, int size) {
+    public Page<Task> getTasksByExecutor(Long executorId, boolean includeArchived, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return taskRepository.findByExecutorId(executorId, pageable);
+        return includeArchived
+                ? taskRepository.findWithArchiveByExecutorId(executorId, pageable)
+                : taskRepository.findByExecutorId(executorId, pageable);
     }
 }
\ No newline at end of file
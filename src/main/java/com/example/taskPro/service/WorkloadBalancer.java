@@ -0,0 +1,52 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.model.TaskPriority;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Min-куча исполнителей по текущей нагрузке: каждая задача уходит наименее загруженному.
+// Актуальная нагрузка хранится в карте; после release в куче остаётся устаревшая запись,
+// она пропускается при извлечении (ленивое удаление)
+public class WorkloadBalancer {
+    private final Map<Long, Long> loads;
+    private final PriorityQueue<ExecutorLoad> heap;
+
+    public WorkloadBalancer(Map<Long, Long> loadByExecutor) {
+        this.loads = new HashMap<>(loadByExecutor);
+        this.heap = new PriorityQueue<>(Math.max(1, loadByExecutor.size()),
+                Comparator.comparingLong(ExecutorLoad::load).thenComparingLong(ExecutorLoad::executorId));
+        loadByExecutor.forEach((executorId, load) -> heap.add(new ExecutorLoad(executorId, load)));
+    }
+
+    public long assign(TaskPriority priority) {
+        ExecutorLoad least;
+        do {
+            least = heap.poll();
+            if (least == null) {
+                throw new IllegalStateException("Нет исполнителей для распределения задач");
+            }
+        } while (least.load() != loads.get(least.executorId()));
+        push(least.executorId(), least.load() + priority.getWeight());
+        return least.executorId();
+    }
+
+    // Возвращает вес задачи, которую не удалось назначить
+    public void release(long executorId, TaskPriority priority) {
+        Long load = loads.get(executorId);
+        if (load == null) {
+            throw new IllegalArgumentException("Неизвестный исполнитель: " + executorId);
+        }
+        push(executorId, load - priority.getWeight());
+    }
+
+    private void push(long executorId, long load) {
+        loads.put(executorId, load);
+        heap.add(new ExecutorLoad(executorId, load));
+    }
+
+    public record ExecutorLoad(long executorId, long load) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.example.taskPro.service.interfaces;
+
+import com.example.taskPro.dto.analyticsDto.CycleTimeReportDto;
+
+public interface AnalyticsServiceInterface {
+    CycleTimeReportDto getCycleTime(Long executorId, String priority);
+}
@@ -0,0 +1,21 @@
+package com.example.taskPro.service.interfaces;
+
+import com.example.taskPro.model.TaskAttachment;
+import org.springframework.security.core.Authentication;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+public interface AttachmentServiceInterface {
+    TaskAttachment upload(Long taskId, String fileName, String contentType, InputStream content,
+                          Authentication authentication);
+
+    List<TaskAttachment> getAttachments(Long taskId, Authentication authentication);
+
+    TaskAttachment getAttachment(Long taskId, Long attachmentId, Authentication authentication);
+
+    Path resolveFile(TaskAttachment attachment);
+
+    int removeOrphans();
+}
@@ -1,9 +1,14 @@
 package com.example.taskPro.service.interfaces;
 
 import com.example.taskPro.dto.securityDto.AuthRequestDto;
+import org.springframework.security.core.Authentication;
 
 public interface AuthServiceInterface {
     String register(AuthRequestDto request);
 
     String login(AuthRequestDto request);
+
+    void logout(String token);
+
+    void revokeToken(String jti, Authentication authentication);
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.example.taskPro.service.interfaces;
+
+import com.example.taskPro.dto.taskDto.AutoAssignResultDto;
+import org.springframework.security.core.Authentication;
+
+public interface AutoAssignServiceInterface {
+    AutoAssignResultDto autoAssign(Authentication authentication);
+}
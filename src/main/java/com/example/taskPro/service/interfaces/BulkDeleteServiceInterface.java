@@ -0,0 +1,13 @@
+package com.example.taskPro.service.interfaces;
+
+import com.example.taskPro.dto.taskDto.BulkDeleteRequestDto;
+import com.example.taskPro.model.BulkDeleteJob;
+import org.springframework.security.core.Authentication;
+
+public interface BulkDeleteServiceInterface {
+    BulkDeleteJob createJob(BulkDeleteRequestDto request, Authentication authentication);
+
+    BulkDeleteJob getJob(Long jobId);
+
+    int processJobs();
+}
@@ -0,0 +1,5 @@
+package com.example.taskPro.service.interfaces;
+
+public interface TaskArchiveServiceInterface {
+    long archiveCompletedTasks();
+}
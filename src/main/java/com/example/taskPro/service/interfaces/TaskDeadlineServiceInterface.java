@@ -0,0 +1,7 @@
+package com.example.taskPro.service.interfaces;
+
+public interface TaskDeadlineServiceInterface {
+    int fireDueDeadlines();
+
+    int catchUpOverdue();
+}
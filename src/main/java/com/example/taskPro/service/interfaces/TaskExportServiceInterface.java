@@ -0,0 +1,9 @@
+package com.example.taskPro.service.interfaces;
+
+import com.example.taskPro.dto.taskDto.TaskExportFormat;
+
+import java.io.OutputStream;
+
+public interface TaskExportServiceInterface {
+    long exportTasks(TaskExportFormat format, Long authorId, Long executorId, OutputStream out);
+}
@@ -1,9 +1,14 @@
 package com.example.taskPro.service.interfaces;
 
+import com.example.taskPro.dto.taskDto.TaskChangesDto;
 import com.example.taskPro.model.Task;
 import org.springframework.data.domain.Page;
 import org.springframework.security.core.Authentication;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 public interface TaskServiceInterface {
     Task getTaskById(Long id);
 
@@ -17,13 +22,25 @@ public interface TaskServiceInterface {
 
     Task updateTaskStatus(Long taskId, String status, Authentication authentication);
 
+    Optional<Task> claimNextTask(Authentication authentication);
+
     Task updateTaskPriority(Long taskId, String priority, Authentication authentication);
 
     Task addComment(Long taskId, String comment, Authentication authentication);
 
-    Page<Task> getTasksFiltered(Long authorId, Long executorId, int page, int size);
+    Page<Task> getTasksFiltered(Long authorId, Long executorId, boolean includeArchived, int page, int size);
+
+    Page<Task> getOverdueTasks(Long executorId, int page, int size);
+
+    Page<Task> searchTasks(List<String> statuses, List<String> priorities, Long authorId, Long executorId,
+                           boolean unassignedOnly, String sort, int page, int size);
+
+    Page<Map<String, Object>> getTaskFieldsFiltered(String fields, Long authorId, Long executorId,
+                                                    boolean includeArchived, int page, int size);
+
+    Page<Task> getTasksByAuthor(Long authorId, boolean includeArchived, int page, int size);
 
-    Page<Task> getTasksByAuthor(Long authorId, int page, int size);
+    Page<Task> getTasksByExecutor(Long executorId, boolean includeArchived, int page, int size);
 
-    Page<Task> getTasksByExecutor(Long executorId, int page, int size);
+    TaskChangesDto getChangesSince(long since, Long executorId, int limit, Authentication authentication);
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+package com.example.taskPro.snapshot;
+
+public record SnapshotColumn(String name, SnapshotColumnType type) {
+}
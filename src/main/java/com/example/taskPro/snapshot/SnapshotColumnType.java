@@ -0,0 +1,20 @@
+package com.example.taskPro.snapshot;
+
+import java.sql.Types;
+
+// Типы колонок снимка. Целые и метки времени (микросекунды от эпохи, без часового пояса)
+// хранятся дельтами внутри блока, поэтому последовательные id и близкие даты занимают 1–3 байта
+public enum SnapshotColumnType {
+    INT8,
+    TEXT,
+    TIMESTAMP;
+
+    public static SnapshotColumnType fromJdbcType(int jdbcType, String column) {
+        return switch (jdbcType) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT -> INT8;
+            case Types.VARCHAR, Types.CHAR, Types.LONGVARCHAR, Types.NVARCHAR -> TEXT;
+            case Types.TIMESTAMP -> TIMESTAMP;
+            default -> throw new IllegalStateException("Неподдерживаемый тип колонки " + column + ": " + jdbcType);
+        };
+    }
+}
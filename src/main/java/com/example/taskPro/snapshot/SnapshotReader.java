@@ -0,0 +1,152 @@
+package com.example.taskPro.snapshot;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// При открытии читаются только заголовки таблиц и блоков; содержимое блока отображается в память
+// (mmap) и разбирается по запросу, поэтому блоки можно декодировать из нескольких потоков одновременно
+public class SnapshotReader implements Closeable {
+    private final FileChannel channel;
+    private final List<Table> tables = new ArrayList<>();
+
+    public record Block(long offset, int rows, int length) {
+    }
+
+    public record Table(String name, List<SnapshotColumn> columns, List<Block> blocks) {
+        public long rowCount() {
+            return blocks.stream().mapToLong(Block::rows).sum();
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(Object[] values) throws IOException;
+    }
+
+    public SnapshotReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            readIndex();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<Table> getTables() {
+        return tables;
+    }
+
+    // Значения — как в SnapshotWriter.writeRow; массив переиспользуется между вызовами consumer
+    public void readBlock(Table table, Block block, RowConsumer consumer) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, block.offset(), block.length());
+        int rows = block.rows();
+        int bitmapBytes = (rows + 7) / 8;
+        List<SnapshotColumn> columns = table.columns();
+        Object[][] values = new Object[columns.size()][rows];
+        for (int c = 0; c < columns.size(); c++) {
+            byte[] nulls = new byte[bitmapBytes];
+            buffer.get(nulls);
+            boolean text = columns.get(c).type() == SnapshotColumnType.TEXT;
+            long previous = 0;
+            for (int r = 0; r < rows; r++) {
+                if ((nulls[r >>> 3] & (1 << (r & 7))) != 0) {
+                    continue;
+                }
+                if (text) {
+                    byte[] bytes = new byte[(int) readVarLong(buffer)];
+                    buffer.get(bytes);
+                    values[c][r] = new String(bytes, StandardCharsets.UTF_8);
+                } else {
+                    long zigzag = readVarLong(buffer);
+                    previous += (zigzag >>> 1) ^ -(zigzag & 1);
+                    values[c][r] = previous;
+                }
+            }
+        }
+
+        Object[] row = new Object[columns.size()];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < row.length; c++) {
+                row[c] = values[c][r];
+            }
+            consumer.accept(row);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void readIndex() throws IOException {
+        InputStream stream = new PositionedInputStream(channel);
+        DataInputStream in = new DataInputStream(stream);
+        byte[] magic = new byte[SnapshotWriter.MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, SnapshotWriter.MAGIC) || in.readInt() != SnapshotWriter.VERSION) {
+            throw new IOException("Файл не является снимком TaskPro поддерживаемой версии");
+        }
+        while (in.readByte() != 0) {
+            String name = in.readUTF();
+            int columnCount = in.readInt();
+            List<SnapshotColumn> columns = new ArrayList<>(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                columns.add(new SnapshotColumn(in.readUTF(), SnapshotColumnType.values()[in.readByte()]));
+            }
+            List<Block> blocks = new ArrayList<>();
+            int rows;
+            while ((rows = in.readInt()) > 0) {
+                int length = in.readInt();
+                blocks.add(new Block(channel.position(), rows, length));
+                channel.position(channel.position() + length);
+            }
+            in.readInt();
+            tables.add(new Table(name, List.copyOf(columns), List.copyOf(blocks)));
+        }
+    }
+
+    private static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    // Небуферизованное чтение с текущей позиции канала: после заголовка блока позиция сдвигается на его длину
+    private static final class PositionedInputStream extends InputStream {
+        private final FileChannel channel;
+        private final ByteBuffer single = ByteBuffer.allocate(1);
+
+        PositionedInputStream(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read() throws IOException {
+            single.clear();
+            return channel.read(single) <= 0 ? -1 : single.get(0) & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            return channel.read(ByteBuffer.wrap(bytes, offset, length));
+        }
+    }
+}
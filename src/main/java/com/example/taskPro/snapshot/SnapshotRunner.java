@@ -0,0 +1,59 @@
+package com.example.taskPro.snapshot;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+// Режим командной строки: приложение выполняет выгрузку или восстановление и завершается.
+//   java -jar taskPro.jar --spring.main.web-application-type=none \
+//        --taskpro.snapshot.mode=export --taskpro.snapshot.file=/data/taskpro.snap
+//   ... --taskpro.snapshot.mode=restore --taskpro.snapshot.file=/data/taskpro.snap [--taskpro.snapshot.truncate=true]
+// В этом режиме планировщик выключен (SchedulingConfig), фоновые задачи не трогают загружаемые таблицы
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "taskpro.snapshot.mode")
+public class SnapshotRunner implements ApplicationRunner {
+    private final SnapshotService snapshotService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${taskpro.snapshot.mode}")
+    private String mode;
+
+    @Value("${taskpro.snapshot.file}")
+    private String file;
+
+    @Value("${taskpro.snapshot.truncate:false}")
+    private boolean truncate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        long start = System.nanoTime();
+        try {
+            Path path = Path.of(file);
+            long rows = switch (mode) {
+                case "export" -> snapshotService.export(path);
+                case "restore" -> snapshotService.restore(path, truncate);
+                default -> throw new IllegalArgumentException("Неизвестный режим снимка: " + mode
+                        + ". Допустимые режимы: export, restore");
+            };
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.info("Снимок ({}): {} строк за {} с, {} строк/с", mode, rows, String.format("%.1f", seconds),
+                    Math.round(rows / Math.max(seconds, 0.001)));
+        } catch (Exception e) {
+            log.error("Ошибка снимка ({}): {}", mode, e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.taskPro.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+// Снимок users, tasks и comments в колоночный бинарный файл и восстановление из него.
+// Выгрузка идёт курсором в одной REPEATABLE READ транзакции, поэтому таблицы согласованы между собой.
+// Восстановление грузит блоки параллельно через COPY, по таблице за раз в порядке внешних ключей
+@Service
+@Slf4j
+public class SnapshotService {
+    // Порядок важен: при восстановлении родительские таблицы загружаются раньше
+    private static final List<String> TABLES = List.of("users", "tasks", "comments");
+    // Таблицы, ссылающиеся на users или tasks, содержимого которых нет в снимке: восстановление поверх
+    // них потеряло бы строки или оставило висячие ссылки, поэтому при непустых таблицах оно прерывается
+    private static final List<String> DEPENDENT_TABLES =
+            List.of("tasks_archive", "comments_archive", "task_attachments", "bulk_delete_jobs");
+    // Служебные данные заменяемых задач (дельта-синхронизация, неотправленные события) очищаются вместе с ними.
+    // revoked_tokens не трогается: внешних ключей у неё нет, а отзыв токенов должен пережить восстановление
+    private static final List<String> TASK_STATE_TABLES =
+            List.of("task_tombstones", "task_outbox", "task_unassignments");
+    private static final int FETCH_SIZE = 10_000;
+    private static final DateTimeFormatter COPY_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${taskpro.snapshot.parallelism:4}")
+    private int parallelism;
+
+    @Value("${taskpro.snapshot.block-rows:" + SnapshotWriter.DEFAULT_BLOCK_ROWS + "}")
+    private int blockRows;
+
+    public SnapshotService(DataSource dataSource, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Файл пишется под временным именем и появляется только после успешной выгрузки всех таблиц
+    public long export(Path file) throws IOException, SQLException {
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        long total = 0;
+        try (Connection connection = dataSource.getConnection();
+             SnapshotWriter writer = new SnapshotWriter(partial, blockRows)) {
+            // Курсор с fetchSize работает только вне autocommit
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                for (String table : TABLES) {
+                    long rows = exportTable(connection, table, writer);
+                    log.info("Снимок: таблица {} — {} строк", table, rows);
+                    total += rows;
+                }
+            } finally {
+                connection.rollback();
+            }
+        } catch (IOException | SQLException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return total;
+    }
+
+    // Зависимые таблицы должны быть пустыми всегда, целевые и служебные — если не задан truncate.
+    // С truncate целевые и служебные таблицы очищаются перед загрузкой
+    public long restore(Path file, boolean truncate) throws IOException {
+        List<String> cleared = new ArrayList<>(TABLES);
+        cleared.addAll(TASK_STATE_TABLES);
+        List<String> locked = new ArrayList<>(cleared);
+        locked.addAll(DEPENDENT_TABLES);
+        transactionTemplate.executeWithoutResult(status -> {
+            // Блокировка до проверки: между проверкой и очисткой в зависимые таблицы никто не запишет
+            jdbcTemplate.execute("LOCK TABLE " + String.join(", ", locked) + " IN ACCESS EXCLUSIVE MODE");
+            checkEmpty(DEPENDENT_TABLES);
+            if (truncate) {
+                // Без CASCADE: пустые зависимые таблицы перечислены явно, а новая ссылающаяся таблица
+                // прервёт TRUNCATE с ошибкой вместо того, чтобы молча очиститься
+                jdbcTemplate.execute("TRUNCATE " + String.join(", ", locked));
+            } else {
+                checkEmpty(cleared);
+            }
+        });
+
+        long total = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        try (SnapshotReader reader = new SnapshotReader(file)) {
+            for (SnapshotReader.Table table : reader.getTables()) {
+                if (!TABLES.contains(table.name())) {
+                    throw new IllegalStateException("Неизвестная таблица в снимке: " + table.name());
+                }
+                String copySql = "COPY " + table.name() + " ("
+                        + table.columns().stream().map(SnapshotColumn::name).collect(Collectors.joining(", "))
+                        + ") FROM STDIN";
+                List<Future<?>> loads = new ArrayList<>(table.blocks().size());
+                for (SnapshotReader.Block block : table.blocks()) {
+                    loads.add(pool.submit(() -> {
+                        loadBlock(reader, table, block, copySql);
+                        return null;
+                    }));
+                }
+                for (Future<?> load : loads) {
+                    load.get();
+                }
+                log.info("Восстановление: таблица {} — {} строк", table.name(), table.rowCount());
+                total += table.rowCount();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка загрузки блока снимка: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Восстановление прервано", e);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        fixUpAfterRestore();
+        return total;
+    }
+
+    private void checkEmpty(List<String> tables) {
+        for (String table : tables) {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + table + ")", Boolean.class))) {
+                throw new IllegalStateException("Таблица " + table + " не пуста, восстановление прервано");
+            }
+        }
+    }
+
+    private long exportTable(Connection connection, String table, SnapshotWriter writer)
+            throws SQLException, IOException {
+        try (Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            statement.setFetchSize(FETCH_SIZE);
+            // Выгрузка по возрастанию id: соседние id кодируются дельтой в один байт
+            try (ResultSet rs = statement.executeQuery("SELECT * FROM " + table + " ORDER BY id")) {
+                ResultSetMetaData meta = rs.getMetaData();
+                List<SnapshotColumn> columns = new ArrayList<>(meta.getColumnCount());
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    columns.add(new SnapshotColumn(meta.getColumnName(i),
+                            SnapshotColumnType.fromJdbcType(meta.getColumnType(i), meta.getColumnName(i))));
+                }
+                writer.beginTable(table, columns);
+
+                Object[] row = new Object[columns.size()];
+                long rows = 0;
+                while (rs.next()) {
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = switch (columns.get(i).type()) {
+                            case INT8 -> {
+                                long value = rs.getLong(i + 1);
+                                yield rs.wasNull() ? null : value;
+                            }
+                            case TEXT -> rs.getString(i + 1);
+                            case TIMESTAMP -> toMicros(rs.getObject(i + 1, LocalDateTime.class));
+                        };
+                    }
+                    writer.writeRow(row);
+                    rows++;
+                }
+                writer.endTable();
+                return rows;
+            }
+        }
+    }
+
+    // Каждый блок — отдельная транзакция COPY в своём соединении
+    private void loadBlock(SnapshotReader reader, SnapshotReader.Table table, SnapshotReader.Block block,
+                           String copySql) throws IOException, SQLException {
+        StringBuilder text = new StringBuilder(block.length() * 2);
+        List<SnapshotColumn> columns = table.columns();
+        reader.readBlock(table, block, values -> {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    text.append('\t');
+                }
+                Object value = values[i];
+                if (value == null) {
+                    text.append("\\N");
+                } else {
+                    switch (columns.get(i).type()) {
+                        case INT8 -> text.append((long) value);
+                        case TEXT -> appendEscaped(text, (String) value);
+                        case TIMESTAMP -> text.append(fromMicros((long) value).format(COPY_TIMESTAMP));
+                    }
+                }
+            }
+            text.append('\n');
+        });
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn(copySql, new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    // Последовательности и производные данные, которые COPY с явными id не обновляет
+    private void fixUpAfterRestore() {
+        for (String table : TABLES) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'),"
+                    + " COALESCE(max(id), 1), max(id) IS NOT NULL) FROM " + table, Long.class);
+        }
+        jdbcTemplate.queryForObject("SELECT setval('task_change_seq', GREATEST("
+                + "(SELECT COALESCE(max(change_seq), 0) FROM tasks),"
+                + " (SELECT COALESCE(max(change_seq), 0) FROM task_tombstones), 1))", Long.class);
+
+        // Гистограммы времени выполнения пересчитываются по восстановленным задачам: одно значение
+        // на задачу по первому завершению, как их ведёт триггер tasks_track_status
+        jdbcTemplate.execute("DELETE FROM cycle_time_histogram");
+        jdbcTemplate.update("INSERT INTO cycle_time_histogram (executor_id, priority, metric, bucket, count)"
+                + " SELECT COALESCE(executor_id, 0), priority, m.metric,"
+                + " cycle_time_bucket(first_completed_at"
+                + " - CASE m.metric WHEN 'LEAD' THEN created_at ELSE in_progress_at END),"
+                + " count(*)"
+                + " FROM tasks CROSS JOIN (VALUES ('LEAD'), ('CYCLE')) m(metric)"
+                + " WHERE first_completed_at IS NOT NULL"
+                + " AND (m.metric = 'LEAD' OR in_progress_at IS NOT NULL)"
+                + " GROUP BY 1, 2, 3, 4");
+        for (String table : TABLES) {
+            jdbcTemplate.execute("ANALYZE " + table);
+        }
+    }
+
+    private static void appendEscaped(StringBuilder text, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '\\' -> text.append("\\\\");
+                case '\t' -> text.append("\\t");
+                case '\n' -> text.append("\\n");
+                case '\r' -> text.append("\\r");
+                default -> text.append(ch);
+            }
+        }
+    }
+
+    private static Long toMicros(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return null;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.taskPro.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+// Формат файла:
+//   "TPSNAP" + версия; затем для каждой таблицы: 1, имя, колонки (имя, тип), блоки, блок с 0 строк; в конце 0.
+//   Блок: число строк, длина в байтах, затем колонки подряд: битовая карта NULL и значения без NULL.
+// Длина блока в заголовке позволяет при восстановлении найти все блоки, не разбирая их, и грузить параллельно
+public class SnapshotWriter implements Closeable {
+    static final byte[] MAGIC = "TPSNAP".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    public static final int DEFAULT_BLOCK_ROWS = 65536;
+
+    private final DataOutputStream out;
+    private final int blockRows;
+    private List<SnapshotColumn> columns;
+    private ColumnBuffer[] buffers;
+    private int rows;
+
+    public SnapshotWriter(Path file, int blockRows) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 20));
+        this.blockRows = blockRows;
+        out.write(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    public void beginTable(String table, List<SnapshotColumn> tableColumns) throws IOException {
+        columns = List.copyOf(tableColumns);
+        buffers = new ColumnBuffer[columns.size()];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new ColumnBuffer(blockRows);
+        }
+        rows = 0;
+        out.writeByte(1);
+        out.writeUTF(table);
+        out.writeInt(columns.size());
+        for (SnapshotColumn column : columns) {
+            out.writeUTF(column.name());
+            out.writeByte(column.type().ordinal());
+        }
+    }
+
+    // INT8 — Number, TEXT — String, TIMESTAMP — Long (микросекунды от эпохи); null допустим для любого типа
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < buffers.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                buffers[i].markNull(rows);
+            } else if (columns.get(i).type() == SnapshotColumnType.TEXT) {
+                buffers[i].writeText((String) value);
+            } else {
+                buffers[i].writeDelta(((Number) value).longValue());
+            }
+        }
+        if (++rows == blockRows) {
+            flushBlock();
+        }
+    }
+
+    public void endTable() throws IOException {
+        if (rows > 0) {
+            flushBlock();
+        }
+        out.writeInt(0);
+        out.writeInt(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.writeByte(0);
+        out.close();
+    }
+
+    private void flushBlock() throws IOException {
+        int bitmapBytes = (rows + 7) / 8;
+        int length = 0;
+        for (ColumnBuffer buffer : buffers) {
+            length += bitmapBytes + buffer.values.size();
+        }
+        out.writeInt(rows);
+        out.writeInt(length);
+        for (ColumnBuffer buffer : buffers) {
+            out.write(buffer.nulls, 0, bitmapBytes);
+            buffer.values.writeTo(out);
+            buffer.reset();
+        }
+        rows = 0;
+    }
+
+    private static final class ColumnBuffer {
+        private final byte[] nulls;
+        private final ByteArrayOutputStream values = new ByteArrayOutputStream();
+        private long previous;
+
+        ColumnBuffer(int blockRows) {
+            nulls = new byte[(blockRows + 7) / 8];
+        }
+
+        void markNull(int row) {
+            nulls[row >>> 3] |= (byte) (1 << (row & 7));
+        }
+
+        void writeDelta(long value) {
+            long delta = value - previous;
+            previous = value;
+            writeVarLong((delta << 1) ^ (delta >> 63));
+        }
+
+        void writeText(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            values.write(bytes, 0, bytes.length);
+        }
+
+        void reset() {
+            Arrays.fill(nulls, (byte) 0);
+            values.reset();
+            previous = 0;
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                values.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            values.write((int) value);
+        }
+    }
+}
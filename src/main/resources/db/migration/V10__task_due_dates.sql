@@ -0,0 +1,27 @@
+-- Срок выполнения задачи и момент, когда она была отмечена просроченной
+ALTER TABLE tasks
+    ADD COLUMN due_at TIMESTAMP,
+    ADD COLUMN overdue_at TIMESTAMP;
+
+ALTER TABLE tasks_archive
+    ADD COLUMN due_at TIMESTAMP,
+    ADD COLUMN overdue_at TIMESTAMP;
+
+-- Незавершённые задачи со сроком: загрузка колеса таймеров при старте и GET /tasks/overdue
+CREATE INDEX idx_tasks_open_due_at ON tasks (due_at, id) WHERE due_at IS NOT NULL AND status <> 'COMPLETED';
+CREATE INDEX idx_tasks_open_executor_due_at ON tasks (executor_id, due_at, id)
+    WHERE due_at IS NOT NULL AND status <> 'COMPLETED';
+
+-- Перенос срока снимает отметку о просрочке
+CREATE FUNCTION tasks_reset_overdue() RETURNS trigger AS $$
+BEGIN
+    IF NEW.due_at IS DISTINCT FROM OLD.due_at THEN
+        NEW.overdue_at := NULL;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_tasks_reset_overdue
+    BEFORE UPDATE OF due_at ON tasks
+    FOR EACH ROW EXECUTE FUNCTION tasks_reset_overdue();
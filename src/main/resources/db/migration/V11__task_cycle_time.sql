@@ -0,0 +1,77 @@
+-- Моменты переходов статуса: первый переход в IN_PROGRESS и переход в COMPLETED
+ALTER TABLE tasks
+    ADD COLUMN in_progress_at TIMESTAMP,
+    ADD COLUMN completed_at TIMESTAMP;
+
+ALTER TABLE tasks_archive
+    ADD COLUMN in_progress_at TIMESTAMP,
+    ADD COLUMN completed_at TIMESTAMP;
+
+-- Для уже завершённых задач точный момент неизвестен, ближайшая оценка — последнее изменение
+UPDATE tasks SET completed_at = updated_at WHERE status = 'COMPLETED';
+UPDATE tasks_archive SET completed_at = updated_at WHERE status = 'COMPLETED';
+
+-- Гистограммы времени выполнения в миллисекундах: LEAD — от создания, CYCLE — от начала работы.
+-- Корзины логарифмические, 8 на каждое удвоение (погрешность до 9%): число строк на исполнителя
+-- и приоритет ограничено, а гистограммы разных групп складываются простым суммированием.
+-- executor_id = 0 — задачи без исполнителя
+CREATE TABLE cycle_time_histogram (
+    executor_id BIGINT NOT NULL,
+    priority VARCHAR(50) NOT NULL,
+    metric VARCHAR(10) NOT NULL,
+    bucket SMALLINT NOT NULL,
+    count BIGINT NOT NULL,
+    PRIMARY KEY (executor_id, priority, metric, bucket)
+);
+
+-- Та же формула, что в CycleTimeHistogram.bucketOf
+CREATE FUNCTION cycle_time_bucket(duration INTERVAL) RETURNS SMALLINT AS $$
+    SELECT floor(8 * ln(greatest(EXTRACT(EPOCH FROM duration) * 1000, 1)) / ln(2))::SMALLINT;
+$$ LANGUAGE sql IMMUTABLE;
+
+INSERT INTO cycle_time_histogram (executor_id, priority, metric, bucket, count)
+SELECT COALESCE(executor_id, 0), priority, 'LEAD', cycle_time_bucket(completed_at - created_at), count(*)
+FROM (SELECT executor_id, priority, created_at, completed_at FROM tasks WHERE status = 'COMPLETED'
+      UNION ALL
+      SELECT executor_id, priority, created_at, completed_at FROM tasks_archive WHERE status = 'COMPLETED') t
+GROUP BY 1, 2, 3, 4;
+
+-- Переходы фиксируются в базе, поэтому учитываются при любом способе смены статуса:
+-- точечный UPDATE исполнителя, claim-next, редактирование задачи администратором.
+-- Каждый переход в COMPLETED добавляет по одному значению в гистограммы своей группы
+CREATE FUNCTION tasks_track_status() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND NEW.status IS NOT DISTINCT FROM OLD.status THEN
+        RETURN NEW;
+    END IF;
+
+    IF NEW.status = 'IN_PROGRESS' THEN
+        NEW.in_progress_at := COALESCE(NEW.in_progress_at, LOCALTIMESTAMP);
+    END IF;
+
+    IF NEW.status <> 'COMPLETED' THEN
+        NEW.completed_at := NULL;
+    ELSE
+        NEW.completed_at := LOCALTIMESTAMP;
+        IF TG_OP = 'UPDATE' THEN
+            INSERT INTO cycle_time_histogram (executor_id, priority, metric, bucket, count)
+            VALUES (COALESCE(NEW.executor_id, 0), NEW.priority, 'LEAD',
+                    cycle_time_bucket(NEW.completed_at - NEW.created_at), 1)
+            ON CONFLICT (executor_id, priority, metric, bucket)
+                DO UPDATE SET count = cycle_time_histogram.count + 1;
+            IF NEW.in_progress_at IS NOT NULL THEN
+                INSERT INTO cycle_time_histogram (executor_id, priority, metric, bucket, count)
+                VALUES (COALESCE(NEW.executor_id, 0), NEW.priority, 'CYCLE',
+                        cycle_time_bucket(NEW.completed_at - NEW.in_progress_at), 1)
+                ON CONFLICT (executor_id, priority, metric, bucket)
+                    DO UPDATE SET count = cycle_time_histogram.count + 1;
+            END IF;
+        END IF;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_tasks_track_status
+    BEFORE INSERT OR UPDATE OF status ON tasks
+    FOR EACH ROW EXECUTE FUNCTION tasks_track_status();
@@ -0,0 +1,20 @@
+-- Фоновые задания массового удаления. Прогресс (курсор last_task_id и счётчик) фиксируется
+-- в той же транзакции, что и удалённая пачка, поэтому после перезапуска задание продолжается с места остановки.
+-- max_task_id ограничивает задание задачами, существовавшими на момент его создания
+CREATE TABLE bulk_delete_jobs (
+    id BIGSERIAL PRIMARY KEY,
+    author_id BIGINT,
+    completed_before TIMESTAMP,
+    status VARCHAR(20) NOT NULL,
+    max_task_id BIGINT NOT NULL,
+    last_task_id BIGINT NOT NULL DEFAULT 0,
+    deleted_count BIGINT NOT NULL DEFAULT 0,
+    created_by BIGINT NOT NULL REFERENCES users(id),
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    last_error TEXT,
+    CHECK (author_id IS NOT NULL OR completed_before IS NOT NULL)
+);
+
+CREATE INDEX idx_bulk_delete_jobs_active ON bulk_delete_jobs (id) WHERE status IN ('PENDING', 'RUNNING');
@@ -0,0 +1,16 @@
+-- Вложения задач: содержимое лежит на локальном диске под именем storage_key, здесь только метаданные.
+-- Внешнего ключа на tasks нет: при архивации задача переезжает в tasks_archive, а вложения остаются.
+-- Вложения удалённых задач и файлы без записей убирает AttachmentService.removeOrphans
+CREATE TABLE task_attachments (
+    id BIGSERIAL PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    uploader_id BIGINT NOT NULL REFERENCES users(id),
+    file_name VARCHAR(255) NOT NULL,
+    content_type VARCHAR(255) NOT NULL,
+    size BIGINT NOT NULL,
+    sha256 VARCHAR(64) NOT NULL,
+    storage_key VARCHAR(36) NOT NULL UNIQUE,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_task_attachments_task_id ON task_attachments (task_id, id);
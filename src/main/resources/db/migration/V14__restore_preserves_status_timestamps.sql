@@ -0,0 +1,34 @@
+-- При вставке уже завершённой задачи (восстановление снимка) момент завершения берётся из строки,
+-- а не заменяется текущим временем. Для обычного создания задачи completed_at пуст, поведение прежнее
+CREATE OR REPLACE FUNCTION tasks_track_status() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND NEW.status IS NOT DISTINCT FROM OLD.status THEN
+        RETURN NEW;
+    END IF;
+
+    IF NEW.status = 'IN_PROGRESS' THEN
+        NEW.in_progress_at := COALESCE(NEW.in_progress_at, LOCALTIMESTAMP);
+    END IF;
+
+    IF NEW.status <> 'COMPLETED' THEN
+        NEW.completed_at := NULL;
+    ELSIF TG_OP = 'INSERT' THEN
+        NEW.completed_at := COALESCE(NEW.completed_at, LOCALTIMESTAMP);
+    ELSE
+        NEW.completed_at := LOCALTIMESTAMP;
+        INSERT INTO cycle_time_histogram (executor_id, priority, metric, bucket, count)
+        VALUES (COALESCE(NEW.executor_id, 0), NEW.priority, 'LEAD',
+                cycle_time_bucket(NEW.completed_at - NEW.created_at), 1)
+        ON CONFLICT (executor_id, priority, metric, bucket)
+            DO UPDATE SET count = cycle_time_histogram.count + 1;
+        IF NEW.in_progress_at IS NOT NULL THEN
+            INSERT INTO cycle_time_histogram (executor_id, priority, metric, bucket, count)
+            VALUES (COALESCE(NEW.executor_id, 0), NEW.priority, 'CYCLE',
+                    cycle_time_bucket(NEW.completed_at - NEW.in_progress_at), 1)
+            ON CONFLICT (executor_id, priority, metric, bucket)
+                DO UPDATE SET count = cycle_time_histogram.count + 1;
+        END IF;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
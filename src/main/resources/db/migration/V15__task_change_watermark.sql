@@ -0,0 +1,71 @@
+-- Номер изменения берётся внутри транзакции, а фиксируется она позже, поэтому строка с меньшим change_seq
+-- может стать видимой после строки с большим. Чтобы токен синхронизации не перепрыгивал через такие строки,
+-- вместе с номером запоминается момент его выдачи (UTC). Читатель отдаёт только изменения, выданные раньше
+-- старта самой старой незавершённой пишущей транзакции (см. pg_stat_activity): все более ранние номера уже
+-- зафиксированы или отменены
+CREATE FUNCTION assign_change_seq() RETURNS trigger AS $$
+BEGIN
+    -- При вставке с явным номером (восстановление снимка) номер и момент сохраняются
+    IF TG_OP = 'INSERT' AND NEW.change_seq IS NOT NULL THEN
+        RETURN NEW;
+    END IF;
+    -- Идентификатор транзакции выдаётся до номера: иначе читатель мог бы не заметить транзакцию,
+    -- которая номер уже взяла, но в pg_stat_activity ещё не числится пишущей
+    PERFORM pg_current_xact_id();
+    NEW.change_seq := nextval('task_change_seq');
+    NEW.change_at := clock_timestamp() AT TIME ZONE 'UTC';
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER trg_tasks_change_seq ON tasks;
+DROP FUNCTION tasks_bump_change_seq();
+
+ALTER TABLE tasks ALTER COLUMN change_seq DROP DEFAULT;
+ALTER TABLE tasks ADD COLUMN change_at TIMESTAMP;
+
+CREATE TRIGGER trg_tasks_change_seq
+    BEFORE INSERT OR UPDATE ON tasks
+    FOR EACH ROW EXECUTE FUNCTION assign_change_seq();
+
+CREATE INDEX idx_tasks_change_at ON tasks (change_at);
+
+ALTER TABLE task_tombstones ALTER COLUMN change_seq DROP DEFAULT;
+ALTER TABLE task_tombstones ADD COLUMN change_at TIMESTAMP;
+
+CREATE TRIGGER trg_task_tombstones_change_seq
+    BEFORE INSERT OR UPDATE ON task_tombstones
+    FOR EACH ROW EXECUTE FUNCTION assign_change_seq();
+
+CREATE INDEX idx_task_tombstones_change_at ON task_tombstones (change_at);
+
+-- Снятие задачи с исполнителя: для синхронизации с фильтром по исполнителю это удаление задачи из его выборки
+CREATE TABLE task_unassignments (
+    task_id BIGINT NOT NULL,
+    executor_id BIGINT NOT NULL,
+    change_seq BIGINT NOT NULL,
+    change_at TIMESTAMP,
+    PRIMARY KEY (task_id, executor_id)
+);
+
+CREATE INDEX idx_task_unassignments_executor_change_seq ON task_unassignments (executor_id, change_seq);
+CREATE INDEX idx_task_unassignments_change_at ON task_unassignments (change_at);
+
+CREATE TRIGGER trg_task_unassignments_change_seq
+    BEFORE INSERT OR UPDATE ON task_unassignments
+    FOR EACH ROW EXECUTE FUNCTION assign_change_seq();
+
+CREATE FUNCTION tasks_record_unassignment() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO task_unassignments (task_id, executor_id)
+    VALUES (OLD.id, OLD.executor_id)
+    ON CONFLICT (task_id, executor_id) DO UPDATE SET change_at = NULL;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_tasks_record_unassignment
+    AFTER UPDATE OF executor_id ON tasks
+    FOR EACH ROW
+    WHEN (OLD.executor_id IS NOT NULL AND OLD.executor_id IS DISTINCT FROM NEW.executor_id)
+    EXECUTE FUNCTION tasks_record_unassignment();
\ No newline at end of file
@@ -0,0 +1,22 @@
+-- Отметка о просрочке снимается не только при переносе срока, но и когда задача выходит из COMPLETED:
+-- иначе переоткрытая задача уже никогда не будет отмечена просроченной повторно
+CREATE OR REPLACE FUNCTION tasks_reset_overdue() RETURNS trigger AS $$
+BEGIN
+    IF NEW.due_at IS DISTINCT FROM OLD.due_at
+            OR (OLD.status = 'COMPLETED' AND NEW.status IS DISTINCT FROM OLD.status) THEN
+        NEW.overdue_at := NULL;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER trg_tasks_reset_overdue ON tasks;
+
+CREATE TRIGGER trg_tasks_reset_overdue
+    BEFORE UPDATE OF due_at, status ON tasks
+    FOR EACH ROW EXECUTE FUNCTION tasks_reset_overdue();
+
+-- Ещё не отмеченные сроки: загрузка колеса при старте и редкий досчёт просрочек, которые
+-- колесо этого узла не видело (срок поставлен на другом узле, который не дожил до срабатывания)
+CREATE INDEX idx_tasks_unmarked_due_at ON tasks (due_at, id)
+    WHERE due_at IS NOT NULL AND status <> 'COMPLETED' AND overdue_at IS NULL;
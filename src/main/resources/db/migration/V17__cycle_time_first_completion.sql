@@ -0,0 +1,53 @@
+-- Гистограммы времени выполнения учитывают только первое завершение задачи: повторное завершение
+-- после переоткрытия не добавляет второго значения. Момент первого завершения хранится отдельно
+-- от completed_at (тот отражает последнее завершение и сбрасывается при переоткрытии).
+-- Задача, созданная сразу завершённой, тоже даёт значение; при восстановлении снимка строка приходит
+-- с first_completed_at, значение не пишется, гистограммы пересчитываются после загрузки
+ALTER TABLE tasks ADD COLUMN first_completed_at TIMESTAMP;
+
+-- Для задач, завершённых сейчас, значение уже учтено в гистограммах. Переоткрытые ранее задачи
+-- восстановить по истории нельзя: их следующее завершение будет учтено ещё раз.
+-- Заполнение не считается изменением задачи для дельта-синхронизации
+ALTER TABLE tasks DISABLE TRIGGER trg_tasks_change_seq;
+UPDATE tasks SET first_completed_at = completed_at WHERE status = 'COMPLETED';
+ALTER TABLE tasks ENABLE TRIGGER trg_tasks_change_seq;
+
+CREATE OR REPLACE FUNCTION tasks_track_status() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND NEW.status IS NOT DISTINCT FROM OLD.status THEN
+        RETURN NEW;
+    END IF;
+
+    IF NEW.status = 'IN_PROGRESS' THEN
+        NEW.in_progress_at := COALESCE(NEW.in_progress_at, LOCALTIMESTAMP);
+    END IF;
+
+    IF NEW.status <> 'COMPLETED' THEN
+        NEW.completed_at := NULL;
+        RETURN NEW;
+    END IF;
+
+    IF TG_OP = 'INSERT' THEN
+        NEW.completed_at := COALESCE(NEW.completed_at, LOCALTIMESTAMP);
+    ELSE
+        NEW.completed_at := LOCALTIMESTAMP;
+    END IF;
+
+    IF NEW.first_completed_at IS NULL THEN
+        NEW.first_completed_at := NEW.completed_at;
+        INSERT INTO cycle_time_histogram (executor_id, priority, metric, bucket, count)
+        VALUES (COALESCE(NEW.executor_id, 0), NEW.priority, 'LEAD',
+                cycle_time_bucket(NEW.first_completed_at - NEW.created_at), 1)
+        ON CONFLICT (executor_id, priority, metric, bucket)
+            DO UPDATE SET count = cycle_time_histogram.count + 1;
+        IF NEW.in_progress_at IS NOT NULL THEN
+            INSERT INTO cycle_time_histogram (executor_id, priority, metric, bucket, count)
+            VALUES (COALESCE(NEW.executor_id, 0), NEW.priority, 'CYCLE',
+                    cycle_time_bucket(NEW.first_completed_at - NEW.in_progress_at), 1)
+            ON CONFLICT (executor_id, priority, metric, bucket)
+                DO UPDATE SET count = cycle_time_histogram.count + 1;
+        END IF;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
\ No newline at end of file
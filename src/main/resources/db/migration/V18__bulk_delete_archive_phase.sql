@@ -0,0 +1,4 @@
+-- Задание массового удаления проходит две фазы: сначала tasks, затем тем же курсором tasks_archive
+-- (комментарии архива удаляются каскадом). При смене фазы курсор last_task_id сбрасывается,
+-- счётчик deleted_count общий. Уже созданные задания начинают с первой фазы
+ALTER TABLE bulk_delete_jobs ADD COLUMN phase VARCHAR(20) NOT NULL DEFAULT 'TASKS';
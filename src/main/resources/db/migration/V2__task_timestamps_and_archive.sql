@@ -0,0 +1,35 @@
+ALTER TABLE tasks
+    ADD COLUMN created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    ADD COLUMN updated_at TIMESTAMP NOT NULL DEFAULT NOW();
+
+CREATE INDEX idx_tasks_author_id ON tasks (author_id);
+CREATE INDEX idx_tasks_executor_id ON tasks (executor_id);
+
+-- Кандидаты на архивацию: только завершённые задачи, в порядке давности изменения
+CREATE INDEX idx_tasks_completed_updated_at ON tasks (updated_at, id) WHERE status = 'COMPLETED';
+
+CREATE TABLE tasks_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description TEXT,
+    status VARCHAR(50) NOT NULL,
+    priority VARCHAR(50) NOT NULL,
+    author_id BIGINT NOT NULL REFERENCES users(id),
+    executor_id BIGINT REFERENCES users(id),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_tasks_archive_author_id ON tasks_archive (author_id);
+CREATE INDEX idx_tasks_archive_executor_id ON tasks_archive (executor_id);
+
+CREATE TABLE comments_archive (
+    id INTEGER PRIMARY KEY,
+    task_id BIGINT NOT NULL REFERENCES tasks_archive(id) ON DELETE CASCADE,
+    author_id BIGINT NOT NULL REFERENCES users(id),
+    content TEXT NOT NULL,
+    created_at TIMESTAMP
+);
+
+CREATE INDEX idx_comments_archive_task_id ON comments_archive (task_id);
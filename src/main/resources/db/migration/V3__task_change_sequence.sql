@@ -0,0 +1,30 @@
+-- Монотонная последовательность изменений задач для дельта-синхронизации клиентов
+CREATE SEQUENCE task_change_seq;
+
+ALTER TABLE tasks ADD COLUMN change_seq BIGINT;
+UPDATE tasks SET change_seq = nextval('task_change_seq');
+ALTER TABLE tasks ALTER COLUMN change_seq SET NOT NULL;
+ALTER TABLE tasks ALTER COLUMN change_seq SET DEFAULT nextval('task_change_seq');
+
+CREATE INDEX idx_tasks_change_seq ON tasks (change_seq);
+
+CREATE FUNCTION tasks_bump_change_seq() RETURNS trigger AS $$
+BEGIN
+    NEW.change_seq := nextval('task_change_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_tasks_change_seq
+    BEFORE UPDATE ON tasks
+    FOR EACH ROW EXECUTE FUNCTION tasks_bump_change_seq();
+
+ALTER TABLE tasks_archive ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE task_tombstones (
+    task_id BIGINT PRIMARY KEY,
+    change_seq BIGINT NOT NULL DEFAULT nextval('task_change_seq'),
+    deleted_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_task_tombstones_change_seq ON task_tombstones (change_seq);
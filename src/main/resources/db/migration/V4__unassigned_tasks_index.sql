@@ -0,0 +1,2 @@
+-- Выборка неназначенных задач для автоназначения по приоритету
+CREATE INDEX idx_tasks_unassigned ON tasks (priority, id) WHERE executor_id IS NULL AND status <> 'COMPLETED';
@@ -0,0 +1,5 @@
+-- Очередь задач для claim-next: PENDING без исполнителя, сначала HIGH, затем по id.
+-- Выражение должно совпадать с ORDER BY в TaskRepositoryImpl.claimNext
+CREATE INDEX idx_tasks_claimable
+    ON tasks ((CASE priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END), id)
+    WHERE status = 'PENDING' AND executor_id IS NULL;
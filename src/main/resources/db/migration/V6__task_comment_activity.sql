@@ -0,0 +1,25 @@
+-- Денормализованные счётчик комментариев и время последнего комментария
+ALTER TABLE tasks
+    ADD COLUMN comment_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN last_comment_at TIMESTAMP;
+
+UPDATE tasks t
+SET comment_count = c.comment_count,
+    last_comment_at = c.last_comment_at
+FROM (SELECT task_id, count(*) AS comment_count, max(created_at) AS last_comment_at
+      FROM comments GROUP BY task_id) c
+WHERE c.task_id = t.id;
+
+-- Сортировка по последней активности без join'а с comments
+CREATE INDEX idx_tasks_last_comment_at ON tasks (last_comment_at DESC NULLS LAST, id);
+
+ALTER TABLE tasks_archive
+    ADD COLUMN comment_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN last_comment_at TIMESTAMP;
+
+UPDATE tasks_archive t
+SET comment_count = c.comment_count,
+    last_comment_at = c.last_comment_at
+FROM (SELECT task_id, count(*) AS comment_count, max(created_at) AS last_comment_at
+      FROM comments_archive GROUP BY task_id) c
+WHERE c.task_id = t.id;
@@ -0,0 +1,16 @@
+-- Outbox уведомлений: событие пишется в той же транзакции, что и изменение задачи,
+-- а доставляется фоновым диспетчером. Доставленные строки удаляются
+CREATE TABLE task_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    task_id BIGINT NOT NULL,
+    recipient_id BIGINT,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP DEFAULT NOW(),
+    last_error TEXT
+);
+
+-- next_attempt_at IS NULL — попытки исчерпаны, такие строки диспетчер не выбирает
+CREATE INDEX idx_task_outbox_pending ON task_outbox (next_attempt_at, id) WHERE next_attempt_at IS NOT NULL;
@@ -0,0 +1,14 @@
+-- Индексы для поиска задач (TaskRepositoryImpl.search): равенство по автору, исполнителю и статусу,
+-- затем порядок выдачи по рангу приоритета и id. Выражение ранга совпадает с TaskRepository.PRIORITY_RANK
+CREATE INDEX idx_tasks_status_rank
+    ON tasks (status, (CASE priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END), id);
+
+CREATE INDEX idx_tasks_author_status_rank
+    ON tasks (author_id, status, (CASE priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END), id);
+
+CREATE INDEX idx_tasks_executor_status_rank
+    ON tasks (executor_id, status, (CASE priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END), id);
+
+-- Одноколоночные индексы покрываются новыми составными по первой колонке
+DROP INDEX idx_tasks_author_id;
+DROP INDEX idx_tasks_executor_id;
@@ -0,0 +1,295 @@
+package com.example.taskPro.controller;
+
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.repository.UserRepository;
+import com.example.taskPro.security.JwtUtil;
+import com.example.taskPro.service.AttachmentService;
+import com.example.taskPro.support.TestFixtures;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Каталог вложений временный и принадлежит только этому тесту; плановая уборка отложена,
+// тесты вызывают её напрямую
+@SpringBootTest(properties = {
+		"taskpro.attachments.max-size-bytes=1024",
+		"taskpro.attachments.cleanup-initial-delay-ms=3600000"
+})
+@AutoConfigureMockMvc
+class AttachmentControllerTest {
+	private static final Path STORAGE_DIR = createStorageDir();
+	private static final byte[] CONTENT = "0123456789abcdefghij".getBytes(StandardCharsets.US_ASCII);
+
+	@DynamicPropertySource
+	static void storageDir(DynamicPropertyRegistry registry) {
+		registry.add("taskpro.attachments.dir", STORAGE_DIR::toString);
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private AttachmentService attachmentService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestFixtures fixtures;
+	private User admin;
+	private User executor;
+	private User stranger;
+	private Task task;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(userRepository, jdbcTemplate, "attachment");
+		admin = fixtures.saveUser(Role.ADMIN);
+		executor = fixtures.saveUser(Role.USER);
+		stranger = fixtures.saveUser(Role.USER);
+		task = taskRepository.save(Task.builder()
+				.title("attachments")
+				.description("attachment test")
+				.status(TaskStatus.PENDING)
+				.priority(TaskPriority.LOW)
+				.author(admin)
+				.executor(executor)
+				.build());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		fixtures.cleanUp();
+	}
+
+	@Test
+	void uploadOverMaxSizeIsRejectedAndLeavesNoFiles() throws Exception {
+		long filesBefore = storedFiles();
+
+		mockMvc.perform(post(attachmentsUrl()).param("fileName", "big.bin")
+						.contentType(MediaType.APPLICATION_OCTET_STREAM)
+						.content(new byte[4096])
+						.header(HttpHeaders.AUTHORIZATION, bearer(executor)))
+				.andExpect(status().isPayloadTooLarge());
+
+		assertEquals(filesBefore, storedFiles());
+		assertEquals(0, attachmentRows());
+	}
+
+	@Test
+	void onlyExecutorOrAdminMayAccessAttachments() throws Exception {
+		long attachmentId = upload(executor);
+		mockMvc.perform(post(attachmentsUrl()).param("fileName", "admin.txt")
+						.content(CONTENT)
+						.header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+				.andExpect(status().isCreated());
+
+		mockMvc.perform(post(attachmentsUrl()).param("fileName", "stranger.txt")
+						.content(CONTENT)
+						.header(HttpHeaders.AUTHORIZATION, bearer(stranger)))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get(attachmentsUrl()).header(HttpHeaders.AUTHORIZATION, bearer(stranger)))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get(attachmentUrl(attachmentId)).header(HttpHeaders.AUTHORIZATION, bearer(stranger)))
+				.andExpect(status().isForbidden());
+
+		mockMvc.perform(get(attachmentUrl(attachmentId)).header(HttpHeaders.AUTHORIZATION, bearer(admin)))
+				.andExpect(status().isOk())
+				.andExpect(content().bytes(CONTENT));
+		assertEquals(2, attachmentRows());
+	}
+
+	@Test
+	void rangeRequestReturnsPartialContent() throws Exception {
+		long attachmentId = upload(executor);
+
+		mockMvc.perform(get(attachmentUrl(attachmentId))
+						.header(HttpHeaders.RANGE, "bytes=2-5")
+						.header(HttpHeaders.AUTHORIZATION, bearer(executor)))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/" + CONTENT.length))
+				.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+				.andExpect(content().bytes("2345".getBytes(StandardCharsets.US_ASCII)));
+
+		mockMvc.perform(get(attachmentUrl(attachmentId))
+						.header(HttpHeaders.RANGE, "bytes=-3")
+						.header(HttpHeaders.AUTHORIZATION, bearer(executor)))
+				.andExpect(status().isPartialContent())
+				.andExpect(content().bytes("hij".getBytes(StandardCharsets.US_ASCII)));
+	}
+
+	@Test
+	void rangeBeyondFileIsNotSatisfiable() throws Exception {
+		long attachmentId = upload(executor);
+
+		mockMvc.perform(get(attachmentUrl(attachmentId))
+						.header(HttpHeaders.RANGE, "bytes=100-200")
+						.header(HttpHeaders.AUTHORIZATION, bearer(executor)))
+				.andExpect(status().isRequestedRangeNotSatisfiable())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + CONTENT.length));
+	}
+
+	@Test
+	void ifRangeServesRangeOnlyForTheSameVersion() throws Exception {
+		long attachmentId = upload(executor);
+		String etag = etag(attachmentId);
+
+		mockMvc.perform(get(attachmentUrl(attachmentId))
+						.header(HttpHeaders.RANGE, "bytes=0-3")
+						.header(HttpHeaders.IF_RANGE, etag)
+						.header(HttpHeaders.AUTHORIZATION, bearer(executor)))
+				.andExpect(status().isPartialContent())
+				.andExpect(content().bytes("0123".getBytes(StandardCharsets.US_ASCII)));
+
+		mockMvc.perform(get(attachmentUrl(attachmentId))
+						.header(HttpHeaders.RANGE, "bytes=0-3")
+						.header(HttpHeaders.IF_RANGE, "\"stale\"")
+						.header(HttpHeaders.AUTHORIZATION, bearer(executor)))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+				.andExpect(content().bytes(CONTENT));
+	}
+
+	@Test
+	void unchangedFileIsNotModified() throws Exception {
+		long attachmentId = upload(executor);
+		String etag = etag(attachmentId);
+
+		mockMvc.perform(get(attachmentUrl(attachmentId))
+						.header(HttpHeaders.IF_NONE_MATCH, etag)
+						.header(HttpHeaders.AUTHORIZATION, bearer(executor)))
+				.andExpect(status().isNotModified())
+				.andExpect(content().bytes(new byte[0]));
+
+		mockMvc.perform(get(attachmentUrl(attachmentId))
+						.header(HttpHeaders.IF_NONE_MATCH, "\"stale\"")
+						.header(HttpHeaders.AUTHORIZATION, bearer(executor)))
+				.andExpect(status().isOk())
+				.andExpect(content().bytes(CONTENT));
+	}
+
+	@Test
+	void removeOrphansDeletesOnlyOldFilesWithoutMetadata() throws Exception {
+		upload(executor);
+		Path known;
+		try (Stream<Path> files = Files.list(STORAGE_DIR)) {
+			known = files.filter(file -> file.getFileName().toString().equals(storageKey())).findFirst().orElseThrow();
+		}
+		Path orphan = Files.write(STORAGE_DIR.resolve(UUID.randomUUID().toString()), CONTENT);
+		Path abandonedUpload = Files.write(STORAGE_DIR.resolve(UUID.randomUUID() + ".part"), CONTENT);
+		Path freshOrphan = Files.write(STORAGE_DIR.resolve(UUID.randomUUID().toString()), CONTENT);
+		FileTime old = FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS));
+		for (Path file : new Path[]{known, orphan, abandonedUpload}) {
+			Files.setLastModifiedTime(file, old);
+		}
+
+		attachmentService.removeOrphans();
+
+		assertTrue(Files.exists(known));
+		assertFalse(Files.exists(orphan));
+		assertFalse(Files.exists(abandonedUpload));
+		assertTrue(Files.exists(freshOrphan));
+		Files.delete(freshOrphan);
+	}
+
+	private long upload(User user) throws Exception {
+		MvcResult result = mockMvc.perform(post(attachmentsUrl()).param("fileName", "notes.txt")
+						.contentType(MediaType.TEXT_PLAIN)
+						.content(CONTENT)
+						.header(HttpHeaders.AUTHORIZATION, bearer(user)))
+				.andExpect(status().isCreated())
+				.andReturn();
+		JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+		assertEquals(CONTENT.length, body.get("size").asLong());
+		return body.get("id").asLong();
+	}
+
+	private String etag(long attachmentId) {
+		return "\"" + jdbcTemplate.queryForObject("SELECT sha256 FROM task_attachments WHERE id = ?",
+				String.class, attachmentId) + "\"";
+	}
+
+	private String storageKey() {
+		return jdbcTemplate.queryForObject("SELECT storage_key FROM task_attachments WHERE task_id = ?",
+				String.class, task.getId());
+	}
+
+	private long attachmentRows() {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM task_attachments WHERE task_id = ?",
+				Long.class, task.getId());
+	}
+
+	private long storedFiles() throws IOException {
+		try (Stream<Path> files = Files.list(STORAGE_DIR)) {
+			return files.count();
+		}
+	}
+
+	private String attachmentsUrl() {
+		return "/tasks/" + task.getId() + "/attachments";
+	}
+
+	private String attachmentUrl(long attachmentId) {
+		return attachmentsUrl() + "/" + attachmentId;
+	}
+
+	private String bearer(User user) {
+		return "Bearer " + jwtUtil.generateToken(user.getId(), user.getEmail());
+	}
+
+	private static Path createStorageDir() {
+		try {
+			return Files.createTempDirectory("taskpro-attachments");
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.example.taskPro.controller;
+
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.UserRepository;
+import com.example.taskPro.security.JwtUtil;
+import com.example.taskPro.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthRevocationTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<String> tokens = new ArrayList<>();
+	private TestFixtures fixtures;
+	private User admin;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(userRepository, jdbcTemplate, "revoke");
+		admin = fixtures.saveUser(Role.ADMIN);
+		user = fixtures.saveUser(Role.USER);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		for (String token : tokens) {
+			jdbcTemplate.update("DELETE FROM revoked_tokens WHERE jti = ?", jwtUtil.parseClaims(token).getId());
+		}
+		fixtures.cleanUp();
+	}
+
+	@Test
+	void logoutRevokesOnlyTheCallersToken() throws Exception {
+		String loggedOut = token(user);
+		String other = token(user);
+		mockMvc.perform(get("/tasks/changes").header(HttpHeaders.AUTHORIZATION, bearer(loggedOut)))
+				.andExpect(status().isOk());
+
+		mockMvc.perform(post("/auth/logout").header(HttpHeaders.AUTHORIZATION, bearer(loggedOut)))
+				.andExpect(status().isNoContent());
+
+		mockMvc.perform(get("/tasks/changes").header(HttpHeaders.AUTHORIZATION, bearer(loggedOut)))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/tasks/changes").header(HttpHeaders.AUTHORIZATION, bearer(other)))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void adminRevokesTokenByJti() throws Exception {
+		String revoked = token(user);
+		String other = token(user);
+
+		mockMvc.perform(post("/auth/revoke")
+						.param("jti", jwtUtil.parseClaims(revoked).getId())
+						.header(HttpHeaders.AUTHORIZATION, bearer(token(admin))))
+				.andExpect(status().isNoContent());
+
+		mockMvc.perform(get("/tasks/changes").header(HttpHeaders.AUTHORIZATION, bearer(revoked)))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/tasks/changes").header(HttpHeaders.AUTHORIZATION, bearer(other)))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void onlyAdminMayRevoke() throws Exception {
+		String victim = token(admin);
+
+		mockMvc.perform(post("/auth/revoke")
+						.param("jti", jwtUtil.parseClaims(victim).getId())
+						.header(HttpHeaders.AUTHORIZATION, bearer(token(user))))
+				.andExpect(status().isForbidden());
+
+		mockMvc.perform(get("/tasks/changes").header(HttpHeaders.AUTHORIZATION, bearer(victim)))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void requestsWithoutValidTokenAreUnauthorized() throws Exception {
+		mockMvc.perform(get("/tasks/changes")).andExpect(status().isUnauthorized());
+		mockMvc.perform(post("/auth/logout").header(HttpHeaders.AUTHORIZATION, "Bearer broken"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private String token(User owner) {
+		String token = jwtUtil.generateToken(owner.getId(), owner.getEmail());
+		tokens.add(token);
+		return token;
+	}
+
+	private String bearer(String token) {
+		return "Bearer " + token;
+	}
+}
\ No newline at end of file
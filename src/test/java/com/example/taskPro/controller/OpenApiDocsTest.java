@@ -0,0 +1,31 @@
+package com.example.taskPro.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// В prod-профиле документация строится лениво, но остаётся доступной без токена
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("prod")
+class OpenApiDocsTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void prodProfileServesApiDocs() throws Exception {
+		mockMvc.perform(get("/v3/api-docs"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.paths['/tasks/changes']").exists());
+		mockMvc.perform(get("/swagger-ui.html"))
+				.andExpect(status().is3xxRedirection());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.example.taskPro.invalidation;
+
+import com.example.taskPro.event.EntityChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Два "узла" в одной JVM, связанные общим InMemoryInvalidationTransport
+class InvalidationBusTest {
+	private InMemoryInvalidationTransport transportA;
+	private InMemoryInvalidationTransport transportB;
+	private InvalidationBus nodeA;
+	private InvalidationBus nodeB;
+	private final List<Set<String>> receivedA = new CopyOnWriteArrayList<>();
+	private final List<Set<String>> receivedB = new CopyOnWriteArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		transportA = new InMemoryInvalidationTransport();
+		transportB = new InMemoryInvalidationTransport();
+		nodeA = new InvalidationBus(transportA, new SimpleMeterRegistry());
+		nodeB = new InvalidationBus(transportB, new SimpleMeterRegistry());
+		nodeA.addListener(receivedA::add);
+		nodeB.addListener(receivedB::add);
+	}
+
+	@AfterEach
+	void tearDown() {
+		transportA.close();
+		transportB.close();
+	}
+
+	@Test
+	void coalescesRepeatedChangesIntoOneMessage() {
+		for (int i = 0; i < 10; i++) {
+			nodeA.onEntityChanged(EntityChangedEvent.of(EntityType.TASK, 42));
+		}
+		nodeA.onEntityChanged(EntityChangedEvent.of(EntityType.USER, 7));
+
+		// Локальные слушатели узла-источника получают каждое изменение сразу
+		assertEquals(11, receivedA.size());
+
+		nodeA.flush();
+		nodeB.flush();
+
+		assertEquals(List.of(Set.of("TASK:42", "USER:7")), receivedB);
+	}
+
+	@Test
+	void doesNotApplyOwnMessages() {
+		nodeA.onEntityChanged(EntityChangedEvent.of(EntityType.TASK, 1));
+		receivedA.clear();
+
+		nodeA.flush();
+		nodeA.flush();
+
+		assertTrue(receivedA.isEmpty());
+	}
+
+	@Test
+	void allKeyReplacesBatch() {
+		transportA.publish(new InvalidationMessage("other", Set.of("TASK:1")));
+		transportA.publish(new InvalidationMessage("", Set.of(InvalidationBus.ALL)));
+
+		nodeB.flush();
+
+		assertEquals(List.of(Set.of(InvalidationBus.ALL)), receivedB);
+	}
+}
@@ -0,0 +1,165 @@
+package com.example.taskPro.limiter;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+	// Имитация медленной базы: пул из 4 соединений, каждый запрос держит соединение 20 мс
+	private static final int POOL_SIZE = 4;
+	private static final long QUERY_MILLIS = 20;
+	private static final int CLIENTS = 64;
+	private static final long THRESHOLD_MILLIS = 60;
+
+	@Test
+	void shedsBulkReadsBeforeWrites() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100,
+				TimeUnit.MILLISECONDS.toNanos(THRESHOLD_MILLIS), 0.9);
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+		}
+
+		assertFalse(limiter.tryAcquire(RequestPriority.BULK));
+		assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+		assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+	}
+
+	@Test
+	void slowResponseShrinksLimitOncePerWave() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100, 1, 0.9);
+		assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+		assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+		long firstStart = System.nanoTime();
+		long secondStart = System.nanoTime();
+
+		limiter.release(secondStart);
+		assertEquals(18, limiter.getLimit());
+		// Запрос начат до снижения: та же волна медленных ответов лимит повторно не снижает
+		limiter.release(firstStart);
+		assertEquals(18, limiter.getLimit());
+		assertEquals(0, limiter.getInFlight());
+	}
+
+	@Test
+	void failedRequestShrinksLimitButNotBelowMinimum() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 100,
+				TimeUnit.HOURS.toNanos(1), 0.5);
+		for (int i = 0; i < 3; i++) {
+			assertTrue(limiter.tryAcquire(RequestPriority.CRITICAL));
+			limiter.releaseFailed(System.nanoTime());
+		}
+
+		assertEquals(2, limiter.getLimit());
+	}
+
+	@Test
+	void growsOnlyWhileLimitIsUsed() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 12,
+				TimeUnit.HOURS.toNanos(1), 0.9);
+		// Один запрос за раз: лимит не используется и не растёт
+		for (int i = 0; i < 100; i++) {
+			assertTrue(limiter.tryAcquire(RequestPriority.NORMAL));
+			limiter.release(System.nanoTime());
+		}
+		assertEquals(10, limiter.getLimit());
+
+		// Десять одновременных запросов: лимит растёт примерно на единицу за limit завершений, но не выше max
+		for (int round = 0; round < 100; round++) {
+			int acquired = 0;
+			while (limiter.tryAcquire(RequestPriority.CRITICAL)) {
+				acquired++;
+			}
+			for (int i = 0; i < acquired; i++) {
+				limiter.release(System.nanoTime());
+			}
+		}
+		assertEquals(12, limiter.getLimit());
+	}
+
+	// Нагрузочный прогон с реальными потоками и таймингами (около 3 с): только ./gradlew benchmark
+	@Test
+	@Tag("benchmark")
+	void keepsLatencyBoundedWhenDatabaseIsSlow() throws InterruptedException {
+		List<Long> unlimited = runLoad(null);
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 200,
+				TimeUnit.MILLISECONDS.toNanos(THRESHOLD_MILLIS), 0.9);
+		AtomicInteger rejected = new AtomicInteger();
+		List<Long> limited = runLoad(limiter, rejected);
+
+		long unlimitedMedian = percentile(unlimited, 0.5);
+		long limitedP99 = percentile(limited, 0.99);
+		System.out.printf("Без лимита: p50=%d мс; с лимитом: p99=%d мс, лимит=%d, отклонено=%d%n",
+				unlimitedMedian, limitedP99, limiter.getLimit(), rejected.get());
+
+		assertTrue(rejected.get() > 0);
+		assertTrue(limitedP99 < unlimitedMedian, "p99 с лимитом " + limitedP99 + " мс");
+		assertTrue(limitedP99 < THRESHOLD_MILLIS * 3, "p99 с лимитом " + limitedP99 + " мс");
+	}
+
+	private List<Long> runLoad(AdaptiveConcurrencyLimiter limiter) throws InterruptedException {
+		return runLoad(limiter, new AtomicInteger());
+	}
+
+	// Клиенты без пауз шлют запросы 1,5 с; учитываются задержки принятых запросов после прогрева
+	private List<Long> runLoad(AdaptiveConcurrencyLimiter limiter, AtomicInteger rejected) throws InterruptedException {
+		Semaphore pool = new Semaphore(POOL_SIZE, true);
+		List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+		long warmupEnd = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500);
+		long end = warmupEnd + TimeUnit.MILLISECONDS.toNanos(1000);
+		ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+		for (int i = 0; i < CLIENTS; i++) {
+			clients.execute(() -> {
+				while (System.nanoTime() < end) {
+					if (limiter != null && !limiter.tryAcquire(RequestPriority.NORMAL)) {
+						rejected.incrementAndGet();
+						sleep(1);
+						continue;
+					}
+					long start = System.nanoTime();
+					pool.acquireUninterruptibly();
+					try {
+						sleep(QUERY_MILLIS);
+					} finally {
+						pool.release();
+					}
+					long latency = System.nanoTime() - start;
+					if (limiter != null) {
+						limiter.release(start);
+					}
+					if (start > warmupEnd) {
+						latencies.add(TimeUnit.NANOSECONDS.toMillis(latency));
+					}
+				}
+			});
+		}
+		clients.shutdown();
+		assertTrue(clients.awaitTermination(30, TimeUnit.SECONDS));
+		return latencies;
+	}
+
+	private long percentile(List<Long> values, double percentile) {
+		List<Long> sorted = new ArrayList<>(values);
+		Collections.sort(sorted);
+		return sorted.get((int) Math.min(sorted.size() - 1, Math.floor(sorted.size() * percentile)));
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
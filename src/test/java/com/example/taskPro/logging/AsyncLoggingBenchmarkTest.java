@@ -0,0 +1,129 @@
+package com.example.taskPro.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncLoggingBenchmarkTest {
+
+	@Test
+	void countsEventsDroppedWhenQueueIsFull() {
+		LoggerContext context = new LoggerContext();
+		AppenderBase<ILoggingEvent> slow = new AppenderBase<>() {
+			@Override
+			protected void append(ILoggingEvent event) {
+				sleep(20);
+			}
+		};
+		slow.setContext(context);
+		slow.start();
+		CountingAsyncAppender async = asyncAppender(context, slow, 4);
+		Logger logger = logger(context, async);
+
+		long droppedBefore = CountingAsyncAppender.getDroppedCount();
+		for (int i = 0; i < 100; i++) {
+			logger.warn("event {}", i);
+		}
+		context.stop();
+
+		assertTrue(CountingAsyncAppender.getDroppedCount() - droppedBefore > 0);
+	}
+
+	// Сравнение пропускной способности "запросов", каждый из которых пишет несколько строк лога,
+	// при синхронном выводе (как show-sql и консоль сейчас) и при асинхронном prod-режиме
+	@Test
+	@Tag("benchmark")
+	void comparesRequestThroughput() throws Exception {
+		File file = File.createTempFile("taskpro-log-benchmark", ".log");
+		file.deleteOnExit();
+
+		LoggerContext syncContext = new LoggerContext();
+		double sync = measure(logger(syncContext, fileAppender(syncContext, file)));
+		syncContext.stop();
+
+		LoggerContext asyncContext = new LoggerContext();
+		long droppedBefore = CountingAsyncAppender.getDroppedCount();
+		double async = measure(logger(asyncContext, asyncAppender(asyncContext, fileAppender(asyncContext, file), 8192)));
+		asyncContext.stop();
+
+		System.out.printf("Запросов в секунду: синхронно %.0f, асинхронно %.0f (отброшено событий: %d)%n",
+				sync, async, CountingAsyncAppender.getDroppedCount() - droppedBefore);
+	}
+
+	private double measure(Logger logger) throws InterruptedException {
+		int threads = 16;
+		long durationNanos = TimeUnit.SECONDS.toNanos(2);
+		LongAdder requests = new LongAdder();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long end = System.nanoTime() + durationNanos;
+		for (int i = 0; i < threads; i++) {
+			pool.execute(() -> {
+				while (System.nanoTime() < end) {
+					logger.info("select t1_0.id, t1_0.title from tasks t1_0 where t1_0.id=?");
+					logger.info("update tasks set status=? where id=? and executor_id=?");
+					logger.warn("Неудачная попытка входа для {}", "u***@example.com");
+					requests.increment();
+				}
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(30, TimeUnit.SECONDS);
+		return requests.sum() / (durationNanos / 1e9);
+	}
+
+	private Logger logger(LoggerContext context, Appender<ILoggingEvent> appender) {
+		Logger logger = context.getLogger("benchmark");
+		logger.setAdditive(false);
+		logger.addAppender(appender);
+		return logger;
+	}
+
+	private OutputStreamAppender<ILoggingEvent> fileAppender(LoggerContext context, File file) throws IOException {
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d{ISO8601} %level [%thread] %logger - %msg%n");
+		encoder.start();
+
+		OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+		appender.setContext(context);
+		appender.setEncoder(encoder);
+		appender.setOutputStream(new FileOutputStream(file, true));
+		appender.start();
+		return appender;
+	}
+
+	private CountingAsyncAppender asyncAppender(LoggerContext context, Appender<ILoggingEvent> delegate,
+												int queueSize) {
+		CountingAsyncAppender async = new CountingAsyncAppender();
+		async.setContext(context);
+		async.setQueueSize(queueSize);
+		async.setNeverBlock(true);
+		async.addAppender(delegate);
+		async.start();
+		return async;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
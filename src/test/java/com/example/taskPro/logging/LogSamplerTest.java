@@ -0,0 +1,26 @@
+package com.example.taskPro.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LogSamplerTest {
+
+	@Test
+	void passesLimitPerWindowAndReportsSuppressed() throws InterruptedException {
+		LogSampler sampler = new LogSampler(Duration.ofMillis(200), 3);
+
+		assertEquals(0, sampler.sample());
+		assertEquals(0, sampler.sample());
+		assertEquals(0, sampler.sample());
+		for (int i = 0; i < 5; i++) {
+			assertEquals(-1, sampler.sample());
+		}
+
+		Thread.sleep(250);
+		assertEquals(5, sampler.sample());
+		assertEquals(0, sampler.sample());
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.taskPro.security;
+
+import com.example.taskPro.event.EntityChangedEvent;
+import com.example.taskPro.invalidation.EntityType;
+import com.example.taskPro.invalidation.InMemoryInvalidationTransport;
+import com.example.taskPro.invalidation.InvalidationBus;
+import com.example.taskPro.model.RevokedToken;
+import com.example.taskPro.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTest {
+	private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+	private final List<Object> events = new ArrayList<>();
+	private InMemoryInvalidationTransport localTransport;
+	private InMemoryInvalidationTransport remoteTransport;
+	private InvalidationBus localBus;
+	private InvalidationBus remoteBus;
+	private TokenRevocationService service;
+
+	@BeforeEach
+	void setUp() {
+		localTransport = new InMemoryInvalidationTransport();
+		remoteTransport = new InMemoryInvalidationTransport();
+		localBus = new InvalidationBus(localTransport, new SimpleMeterRegistry());
+		remoteBus = new InvalidationBus(remoteTransport, new SimpleMeterRegistry());
+		when(repository.findByExpiresAtAfter(any())).thenReturn(List.of());
+		service = new TokenRevocationService(repository, localBus, events::add);
+		service.load();
+	}
+
+	@AfterEach
+	void tearDown() {
+		localTransport.close();
+		remoteTransport.close();
+	}
+
+	@Test
+	void exactSetRejectsBloomFalsePositives() {
+		List<String> revoked = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++) {
+			String jti = UUID.randomUUID().toString();
+			service.revoke(jti, 1L, LocalDateTime.now().plusHours(1));
+			revoked.add(jti);
+		}
+
+		revoked.forEach(jti -> assertTrue(service.isRevoked(jti)));
+		// При 1% ложных срабатываний фильтра часть ключей проходит его, но точное множество их отсекает
+		for (int i = 0; i < 100_000; i++) {
+			assertFalse(service.isRevoked(UUID.randomUUID().toString()));
+		}
+		assertFalse(service.isRevoked(null));
+	}
+
+	@Test
+	void publishesRevocationForOtherNodes() {
+		service.revoke("logout-jti", 1L, LocalDateTime.now().plusHours(1));
+
+		assertEquals(List.of(EntityChangedEvent.of(EntityType.TOKEN, "logout-jti")), events);
+		verify(repository).insertIfAbsent(any(), any(), any());
+	}
+
+	@Test
+	void expiredTokensAreIgnoredAndPruned() {
+		service.revoke("expired", 1L, LocalDateTime.now().minusSeconds(1));
+		service.revoke("alive", 1L, LocalDateTime.now().plusHours(1));
+
+		assertFalse(service.isRevoked("expired"));
+		assertTrue(service.isRevoked("alive"));
+
+		service.pruneExpired();
+
+		verify(repository).deleteExpired(any());
+		assertFalse(service.isRevoked("expired"));
+		assertTrue(service.isRevoked("alive"));
+	}
+
+	@Test
+	void syncsRevocationsFromOtherNodeOnBusMessage() {
+		when(repository.findByRevokedAtAfter(any())).thenReturn(List.of(RevokedToken.builder()
+				.jti("remote")
+				.expiresAt(LocalDateTime.now().plusHours(1))
+				.build()));
+		assertFalse(service.isRevoked("remote"));
+
+		remoteBus.onEntityChanged(EntityChangedEvent.of(EntityType.TOKEN, "remote"));
+		remoteBus.flush();
+		localBus.flush();
+
+		assertTrue(service.isRevoked("remote"));
+	}
+
+	@Test
+	void ignoresBusMessagesAboutOtherEntities() {
+		remoteBus.onEntityChanged(EntityChangedEvent.of(EntityType.TASK, 1));
+		remoteBus.flush();
+		localBus.flush();
+
+		verify(repository, never()).findByRevokedAtAfter(any());
+	}
+
+	@Test
+	void periodicSyncPicksUpMissedRevocations() {
+		when(repository.findByRevokedAtAfter(any())).thenReturn(List.of(RevokedToken.builder()
+				.jti("missed")
+				.expiresAt(LocalDateTime.now().plusHours(1))
+				.build()));
+
+		service.syncFromDatabase();
+
+		assertTrue(service.isRevoked("missed"));
+	}
+}
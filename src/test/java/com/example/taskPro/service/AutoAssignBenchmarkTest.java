@@ -0,0 +1,71 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.dto.taskDto.AutoAssignResultDto;
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Автоназначение затрагивает все свободные задачи базы, поэтому бенчмарк работает в отдельной схеме
+@SpringBootTest(properties = {
+		"spring.datasource.hikari.schema=taskpro_benchmark",
+		"spring.flyway.schemas=taskpro_benchmark",
+		"spring.flyway.default-schema=taskpro_benchmark"
+})
+@Tag("benchmark")
+class AutoAssignBenchmarkTest {
+	private static final int EXECUTORS = 1_000;
+	private static final int TASKS = 1_000_000;
+
+	@Autowired
+	private AutoAssignService autoAssignService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.execute("TRUNCATE users, tasks, comments RESTART IDENTITY CASCADE");
+	}
+
+	@Test
+	void assignsMillionTasksAcrossThousandExecutors() {
+		jdbcTemplate.execute("TRUNCATE users, tasks, comments RESTART IDENTITY CASCADE");
+		jdbcTemplate.update("INSERT INTO users (email, password, role)"
+				+ " SELECT 'assign' || g || '@example.com', 'password', CASE WHEN g = 0 THEN 'ADMIN' ELSE 'USER' END"
+				+ " FROM generate_series(0, ?) g", EXECUTORS);
+		jdbcTemplate.update("INSERT INTO tasks (title, status, priority, author_id)"
+				+ " SELECT 'assign ' || g, (ARRAY['PENDING', 'IN_PROGRESS'])[1 + g % 2],"
+				+ " (ARRAY['LOW', 'MEDIUM', 'HIGH'])[1 + (g / 2) % 3], 1"
+				+ " FROM generate_series(1, ?) g", TASKS);
+		jdbcTemplate.execute("ANALYZE users, tasks");
+		User admin = User.builder().id(1L).email("assign0@example.com").role(Role.ADMIN).build();
+
+		long start = System.nanoTime();
+		AutoAssignResultDto result = autoAssignService.autoAssign(
+				new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("Автоназначение: %d задач за %.1f с, %.0f задач/с%n",
+				result.getAssignedTasks(), seconds, result.getAssignedTasks() / seconds);
+
+		assertEquals(TASKS, result.getAssignedTasks());
+		assertEquals(0L, jdbcTemplate.queryForObject("SELECT count(*) FROM tasks WHERE executor_id IS NULL", Long.class));
+		// Разброс нагрузки не больше веса одной задачи с высоким приоритетом
+		Map<String, Object> spread = jdbcTemplate.queryForMap("SELECT min(load) AS min, max(load) AS max FROM ("
+				+ " SELECT sum(CASE priority WHEN 'HIGH' THEN 3 WHEN 'MEDIUM' THEN 2 ELSE 1 END) AS load"
+				+ " FROM tasks GROUP BY executor_id) l");
+		long min = ((Number) spread.get("min")).longValue();
+		long max = ((Number) spread.get("max")).longValue();
+		assertTrue(max - min <= 3, "Разброс нагрузки: " + (max - min));
+	}
+}
\ No newline at end of file
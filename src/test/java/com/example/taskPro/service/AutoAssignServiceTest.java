@@ -0,0 +1,101 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.dto.taskDto.AutoAssignResultDto;
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Автоназначение затрагивает все свободные задачи базы, поэтому тест работает в отдельной схеме.
+// Плановый запуск диспетчера outbox отложен, чтобы события оставались в таблице
+@SpringBootTest(properties = {
+		"spring.datasource.hikari.schema=taskpro_assign_test",
+		"spring.flyway.schemas=taskpro_assign_test",
+		"spring.flyway.default-schema=taskpro_assign_test",
+		"taskpro.outbox.initial-delay-ms=3600000",
+		"taskpro.auto-assign.chunk-size=2"
+})
+class AutoAssignServiceTest {
+
+	@Autowired
+	private AutoAssignService autoAssignService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private User admin;
+	private long executorId;
+
+	@BeforeEach
+	void setUp() {
+		truncate();
+		jdbcTemplate.update("INSERT INTO users (email, password, role) VALUES"
+				+ " ('assign-admin@example.com', 'password', 'ADMIN'), ('assign-user@example.com', 'password', 'USER')");
+		long adminId = userId("assign-admin@example.com");
+		executorId = userId("assign-user@example.com");
+		admin = User.builder().id(adminId).email("assign-admin@example.com").role(Role.ADMIN).build();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		truncate();
+	}
+
+	@Test
+	void assignedTasksGetOutboxEvents() {
+		jdbcTemplate.update("INSERT INTO tasks (title, status, priority, author_id)"
+				+ " SELECT 'assign ' || g, 'PENDING', 'MEDIUM', ? FROM generate_series(1, 5) g", admin.getId());
+		jdbcTemplate.update("INSERT INTO tasks (title, status, priority, author_id, executor_id)"
+				+ " VALUES ('manual', 'PENDING', 'HIGH', ?, ?)", admin.getId(), admin.getId());
+
+		AutoAssignResultDto result = autoAssign();
+
+		assertEquals(5, result.getAssignedTasks());
+		assertEquals(0L, count("SELECT count(*) FROM tasks WHERE executor_id IS NULL"));
+		assertEquals(5L, count("SELECT count(*) FROM task_outbox WHERE event_type = 'TASK_ASSIGNED'"
+				+ " AND recipient_id = " + executorId));
+		List<Long> unmatched = jdbcTemplate.queryForList("SELECT t.id FROM tasks t WHERE t.executor_id = ?"
+				+ " AND NOT EXISTS (SELECT 1 FROM task_outbox o WHERE o.task_id = t.id)", Long.class, executorId);
+		assertEquals(List.of(), unmatched);
+		// Вручную назначенная задача не меняется и события не получает
+		assertEquals(0L, count("SELECT count(*) FROM task_outbox o JOIN tasks t ON t.id = o.task_id"
+				+ " WHERE t.title = 'manual'"));
+	}
+
+	@Test
+	void repeatedRunAssignsNothing() {
+		jdbcTemplate.update("INSERT INTO tasks (title, status, priority, author_id)"
+				+ " SELECT 'assign ' || g, 'PENDING', 'LOW', ? FROM generate_series(1, 3) g", admin.getId());
+		autoAssign();
+
+		AutoAssignResultDto result = autoAssign();
+
+		assertEquals(0, result.getAssignedTasks());
+		assertEquals(3L, count("SELECT count(*) FROM task_outbox"));
+	}
+
+	private AutoAssignResultDto autoAssign() {
+		return autoAssignService.autoAssign(new UsernamePasswordAuthenticationToken(admin, null, admin.getAuthorities()));
+	}
+
+	private long userId(String email) {
+		return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, email);
+	}
+
+	private long count(String sql) {
+		return jdbcTemplate.queryForObject(sql, Long.class);
+	}
+
+	private void truncate() {
+		jdbcTemplate.execute("TRUNCATE users, tasks, comments, task_outbox RESTART IDENTITY CASCADE");
+	}
+}
\ No newline at end of file
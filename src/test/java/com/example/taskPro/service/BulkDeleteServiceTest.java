@@ -0,0 +1,209 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.dto.taskDto.BulkDeleteRequestDto;
+import com.example.taskPro.model.BulkDeleteJob;
+import com.example.taskPro.model.BulkDeleteJobStatus;
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.repository.UserRepository;
+import com.example.taskPro.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Нулевой бюджет времени: каждый вызов processJobs удаляет ровно одну пачку
+@SpringBootTest(properties = {
+		"taskpro.bulk-delete.chunk-size=50",
+		"taskpro.bulk-delete.time-budget-ms=0",
+		"taskpro.bulk-delete.initial-delay-ms=3600000"
+})
+class BulkDeleteServiceTest {
+	private static final int TASKS = 230;
+
+	@Autowired
+	private BulkDeleteService bulkDeleteService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Long> taskIds = new ArrayList<>();
+	private TestFixtures fixtures;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(userRepository, jdbcTemplate, "bulk");
+	}
+
+	// Tombstone остаются после удаления задач и с пользователями не связаны, поэтому убираются по id задач
+	@AfterEach
+	void cleanUp() {
+		for (Long taskId : taskIds) {
+			jdbcTemplate.update("DELETE FROM task_tombstones WHERE task_id = ?", taskId);
+		}
+		fixtures.cleanUp();
+	}
+
+	@Test
+	void deletesAuthorTasksInCommittedChunks() {
+		User admin = fixtures.saveUser(Role.ADMIN);
+		User author = fixtures.saveUser(Role.ADMIN);
+		for (int i = 0; i < TASKS; i++) {
+			Long taskId = saveTask(author);
+			jdbcTemplate.update("INSERT INTO comments (task_id, author_id, content) VALUES (?, ?, 'bulk')",
+					taskId, author.getId());
+		}
+		Long foreignTaskId = saveTask(admin);
+
+		BulkDeleteRequestDto request = new BulkDeleteRequestDto();
+		request.setAuthorId(author.getId());
+		Long jobId = bulkDeleteService.createJob(request, fixtures.auth(admin)).getId();
+
+		// Прогресс первой пачки уже закоммичен и виден в статусе задания
+		bulkDeleteService.processJobs();
+		BulkDeleteJob job = bulkDeleteService.getJob(jobId);
+		assertEquals(BulkDeleteJobStatus.RUNNING, job.getStatus());
+		assertEquals(50, job.getDeletedCount());
+
+		// Пачки задач, переход к архиву и пустая пачка архива
+		job = runToCompletion(jobId, TASKS / 50 + 2);
+		assertEquals(TASKS, job.getDeletedCount());
+		assertEquals(0, count("SELECT count(*) FROM tasks WHERE author_id = ?", author.getId()));
+		assertEquals(0, count("SELECT count(*) FROM comments WHERE author_id = ?", author.getId()));
+		assertEquals(TASKS, count("SELECT count(*) FROM task_tombstones WHERE task_id BETWEEN ? AND ?",
+				taskIds.get(0), taskIds.get(TASKS - 1)));
+		assertTrue(taskRepository.existsById(foreignTaskId));
+	}
+
+	@Test
+	void completedBeforeDeletesOnlyOldCompletedTasksIncludingArchive() {
+		User admin = fixtures.saveUser(Role.ADMIN);
+		User author = fixtures.saveUser(Role.USER);
+		LocalDateTime now = LocalDateTime.now();
+		List<Long> expired = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			expired.add(saveCompletedTask(author, now.minusYears(2)));
+		}
+		Long recent = saveCompletedTask(author, now.minusDays(1));
+		Long pending = saveTask(author);
+		for (int i = 0; i < 2; i++) {
+			Long archived = saveCompletedTask(author, now.minusYears(2));
+			jdbcTemplate.update("INSERT INTO comments (task_id, author_id, content) VALUES (?, ?, 'bulk')",
+					archived, author.getId());
+			archive(archived);
+			expired.add(archived);
+		}
+		Long recentArchived = saveCompletedTask(author, now.minusDays(1));
+		archive(recentArchived);
+
+		BulkDeleteRequestDto request = new BulkDeleteRequestDto();
+		request.setAuthorId(author.getId());
+		request.setCompletedBefore(now.minusYears(1));
+		Long jobId = bulkDeleteService.createJob(request, fixtures.auth(admin)).getId();
+
+		BulkDeleteJob job = runToCompletion(jobId, 4);
+
+		assertEquals(expired.size(), job.getDeletedCount());
+		for (Long taskId : expired) {
+			assertEquals(0, count("SELECT count(*) FROM tasks WHERE id = ?", taskId)
+					+ count("SELECT count(*) FROM tasks_archive WHERE id = ?", taskId));
+		}
+		assertEquals(0, count("SELECT count(*) FROM comments_archive WHERE author_id = ?", author.getId()));
+		assertTrue(taskRepository.existsById(recent));
+		assertTrue(taskRepository.existsById(pending));
+		assertEquals(1, count("SELECT count(*) FROM tasks_archive WHERE id = ?", recentArchived));
+	}
+
+	@Test
+	void resumesFromSavedCursor() {
+		User admin = fixtures.saveUser(Role.ADMIN);
+		User author = fixtures.saveUser(Role.ADMIN);
+		for (int i = 0; i < 120; i++) {
+			saveTask(author);
+		}
+		BulkDeleteRequestDto request = new BulkDeleteRequestDto();
+		request.setAuthorId(author.getId());
+		Long jobId = bulkDeleteService.createJob(request, fixtures.auth(admin)).getId();
+
+		bulkDeleteService.processJobs();
+		assertEquals(taskIds.get(49), bulkDeleteService.getJob(jobId).getLastTaskId());
+
+		// Прогресс хранится только в строке задания: следующий запуск (в том числе после перезапуска узла)
+		// продолжает с сохранённого курсора, задачи до него не перечитываются
+		jdbcTemplate.update("UPDATE bulk_delete_jobs SET last_task_id = ? WHERE id = ?", taskIds.get(99), jobId);
+		BulkDeleteJob job = runToCompletion(jobId, 3);
+
+		assertEquals(70, job.getDeletedCount());
+		assertEquals(50, count("SELECT count(*) FROM tasks WHERE author_id = ?", author.getId()));
+		assertEquals(50, count("SELECT count(*) FROM tasks WHERE id BETWEEN ? AND ?",
+				taskIds.get(50), taskIds.get(99)));
+	}
+
+	private BulkDeleteJob runToCompletion(Long jobId, int maxRuns) {
+		int runs = 0;
+		while (bulkDeleteService.getJob(jobId).getStatus() != BulkDeleteJobStatus.COMPLETED) {
+			bulkDeleteService.processJobs();
+			assertTrue(++runs <= maxRuns, "Задание не завершилось");
+		}
+		return bulkDeleteService.getJob(jobId);
+	}
+
+	// Перенос в архив так же, как его делает архивация: строка задачи и её комментарии
+	private void archive(Long taskId) {
+		jdbcTemplate.update("INSERT INTO tasks_archive (id, title, description, status, priority, author_id,"
+				+ " executor_id, created_at, updated_at, completed_at) SELECT id, title, description, status, priority,"
+				+ " author_id, executor_id, created_at, updated_at, completed_at FROM tasks WHERE id = ?", taskId);
+		jdbcTemplate.update("INSERT INTO comments_archive (id, task_id, author_id, content, created_at)"
+				+ " SELECT id, task_id, author_id, content, created_at FROM comments WHERE task_id = ?", taskId);
+		jdbcTemplate.update("DELETE FROM tasks WHERE id = ?", taskId);
+	}
+
+	private Long saveCompletedTask(User author, LocalDateTime completedAt) {
+		Task task = taskRepository.save(Task.builder()
+				.title("bulk")
+				.description("bulk delete test")
+				.status(TaskStatus.COMPLETED)
+				.priority(TaskPriority.LOW)
+				.author(author)
+				.executor(author)
+				.build());
+		taskIds.add(task.getId());
+		jdbcTemplate.update("UPDATE tasks SET completed_at = ? WHERE id = ?", completedAt, task.getId());
+		return task.getId();
+	}
+
+	private long count(String sql, Object... args) {
+		return jdbcTemplate.queryForObject(sql, Long.class, args);
+	}
+
+	private Long saveTask(User author) {
+		Task task = taskRepository.save(Task.builder()
+				.title("bulk")
+				.description("bulk delete test")
+				.status(TaskStatus.PENDING)
+				.priority(TaskPriority.LOW)
+				.author(author)
+				.build());
+		taskIds.add(task.getId());
+		return task.getId();
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.taskPro.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ByteRangeTest {
+
+	@Test
+	void parsesSingleRanges() {
+		assertEquals(new ByteRange(0, 499), ByteRange.parse("bytes=0-499", 1000));
+		assertEquals(new ByteRange(500, 999), ByteRange.parse("bytes=500-", 1000));
+		assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=-100", 1000));
+		// Конец за пределами файла обрезается, длинный суффикс означает весь файл
+		assertEquals(new ByteRange(500, 999), ByteRange.parse("bytes=500-5000", 1000));
+		assertEquals(new ByteRange(0, 999), ByteRange.parse("bytes=-5000", 1000));
+		assertEquals("bytes 900-999/1000", ByteRange.parse("bytes=-100", 1000).contentRange(1000));
+		assertEquals(100, ByteRange.parse("bytes=-100", 1000).length());
+	}
+
+	@Test
+	void ignoresMalformedAndMultipleRanges() {
+		assertNull(ByteRange.parse(null, 1000));
+		assertNull(ByteRange.parse("items=0-1", 1000));
+		assertNull(ByteRange.parse("bytes=abc", 1000));
+		assertNull(ByteRange.parse("bytes=5-1", 1000));
+		assertNull(ByteRange.parse("bytes=0-1,5-9", 1000));
+	}
+
+	@Test
+	void rejectsUnsatisfiableRanges() {
+		assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=1000-", 1000));
+		assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=-0", 1000));
+		assertThrows(IllegalArgumentException.class, () -> ByteRange.parse("bytes=-10", 0));
+	}
+}
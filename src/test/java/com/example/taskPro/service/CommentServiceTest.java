@@ -0,0 +1,105 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.repository.UserRepository;
+import com.example.taskPro.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Денормализованные comment_count и last_comment_at (V6) ведёт addComment, а не триггер
+@SpringBootTest
+class CommentServiceTest {
+
+	@Autowired
+	private CommentService commentService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestFixtures fixtures;
+	private User executor;
+	private Task task;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(userRepository, jdbcTemplate, "comment");
+		User admin = fixtures.saveUser(Role.ADMIN);
+		executor = fixtures.saveUser(Role.USER);
+		task = taskRepository.save(Task.builder()
+				.title("comments")
+				.description("comment counter test")
+				.status(TaskStatus.PENDING)
+				.priority(TaskPriority.LOW)
+				.author(admin)
+				.executor(executor)
+				.build());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		fixtures.cleanUp();
+	}
+
+	@Test
+	void addCommentIncrementsCountAndMovesLastCommentAt() {
+		assertEquals(0, commentCount());
+		assertNull(lastCommentAt());
+
+		commentService.addComment(task.getId(), "first", fixtures.auth(executor));
+		LocalDateTime first = lastCommentAt();
+		assertEquals(1, commentCount());
+		assertEquals(newestCommentAt(), first);
+
+		commentService.addComment(task.getId(), "second", fixtures.auth(executor));
+		assertEquals(2, commentCount());
+		assertEquals(newestCommentAt(), lastCommentAt());
+		assertFalse(lastCommentAt().isBefore(first));
+	}
+
+	@Test
+	void lastCommentAtNeverMovesBackwards() {
+		LocalDateTime future = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+		jdbcTemplate.update("UPDATE tasks SET last_comment_at = ? WHERE id = ?", future, task.getId());
+
+		commentService.addComment(task.getId(), "late", fixtures.auth(executor));
+
+		assertEquals(1, commentCount());
+		assertEquals(future, lastCommentAt());
+	}
+
+	private int commentCount() {
+		return jdbcTemplate.queryForObject("SELECT comment_count FROM tasks WHERE id = ?", Integer.class, task.getId());
+	}
+
+	private LocalDateTime lastCommentAt() {
+		return jdbcTemplate.queryForObject("SELECT last_comment_at FROM tasks WHERE id = ?",
+				LocalDateTime.class, task.getId());
+	}
+
+	private LocalDateTime newestCommentAt() {
+		return jdbcTemplate.queryForObject("SELECT max(created_at) FROM comments WHERE task_id = ?",
+				LocalDateTime.class, task.getId());
+	}
+}
\ No newline at end of file
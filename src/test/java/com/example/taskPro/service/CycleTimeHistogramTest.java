@@ -0,0 +1,57 @@
+package com.example.taskPro.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CycleTimeHistogramTest {
+
+	@Test
+	void percentilesStayWithinBucketError() {
+		CycleTimeHistogram histogram = new CycleTimeHistogram();
+		for (long millis = 1; millis <= 100_000; millis++) {
+			histogram.record(millis);
+		}
+
+		assertEquals(100_000, histogram.getCount());
+		assertWithinError(50_000, histogram.percentile(50));
+		assertWithinError(90_000, histogram.percentile(90));
+		assertWithinError(99_000, histogram.percentile(99));
+		assertWithinError(100_000, histogram.percentile(100));
+	}
+
+	@Test
+	void mergedHistogramEqualsHistogramOfAllValues() {
+		Random random = new Random(42);
+		CycleTimeHistogram left = new CycleTimeHistogram();
+		CycleTimeHistogram right = new CycleTimeHistogram();
+		CycleTimeHistogram all = new CycleTimeHistogram();
+		for (int i = 0; i < 10_000; i++) {
+			long millis = (long) Math.exp(random.nextDouble() * 20);
+			(i % 2 == 0 ? left : right).record(millis);
+			all.record(millis);
+		}
+
+		left.merge(right);
+
+		assertEquals(all.getCount(), left.getCount());
+		for (double p : new double[]{1, 25, 50, 75, 90, 99, 99.9, 100}) {
+			assertEquals(all.percentile(p), left.percentile(p));
+		}
+	}
+
+	@Test
+	void emptyHistogramHasNoPercentiles() {
+		assertNull(new CycleTimeHistogram().percentile(50));
+	}
+
+	private void assertWithinError(long expected, Long actual) {
+		double error = Math.pow(2, 1.0 / CycleTimeHistogram.SUB_BUCKETS) - 1;
+		assertTrue(actual >= expected && actual <= expected * (1 + error) + 1,
+				"Ожидалось около " + expected + ", получено " + actual);
+	}
+}
@@ -0,0 +1,127 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.repository.UserRepository;
+import com.example.taskPro.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Гистограммы ведёт триггер tasks_track_status; у каждого теста свой исполнитель, поэтому его строки
+// в cycle_time_histogram не пересекаются с другими данными
+@SpringBootTest
+class CycleTimeTrackingTest {
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestFixtures fixtures;
+	private User executor;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(userRepository, jdbcTemplate, "cycle-time");
+		executor = fixtures.saveUser(Role.USER);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		fixtures.cleanUp();
+	}
+
+	@Test
+	void completionAddsOneSampleToEachMetric() {
+		Task task = saveTask(TaskStatus.PENDING);
+		setStatus(task, "IN_PROGRESS");
+		setStatus(task, "COMPLETED");
+
+		assertEquals(1, samples("LEAD"));
+		assertEquals(1, samples("CYCLE"));
+		assertNotNull(firstCompletedAt(task));
+	}
+
+	@Test
+	void reopenedTaskIsCountedOnlyOnFirstCompletion() {
+		Task task = saveTask(TaskStatus.IN_PROGRESS);
+		setStatus(task, "COMPLETED");
+		LocalDateTime firstCompletedAt = firstCompletedAt(task);
+
+		setStatus(task, "IN_PROGRESS");
+		assertNull(completedAt(task));
+		setStatus(task, "COMPLETED");
+
+		assertEquals(1, samples("LEAD"));
+		assertEquals(1, samples("CYCLE"));
+		assertEquals(firstCompletedAt, firstCompletedAt(task));
+		assertNotNull(completedAt(task));
+	}
+
+	@Test
+	void taskCreatedAsCompletedAddsLeadSample() {
+		Task task = saveTask(TaskStatus.COMPLETED);
+
+		assertEquals(1, samples("LEAD"));
+		assertEquals(0, samples("CYCLE"));
+		assertEquals(completedAt(task), firstCompletedAt(task));
+	}
+
+	@Test
+	void insertWithFirstCompletionAddsNoSample() {
+		// Так строки приходят при восстановлении снимка: значение уже было учтено
+		jdbcTemplate.update("INSERT INTO tasks (title, description, status, priority, author_id, executor_id,"
+				+ " completed_at, first_completed_at) VALUES ('cycle', 'cycle time test', 'COMPLETED', 'LOW', ?, ?,"
+				+ " NOW(), NOW())", executor.getId(), executor.getId());
+
+		assertEquals(0, samples("LEAD"));
+	}
+
+	private void setStatus(Task task, String status) {
+		jdbcTemplate.update("UPDATE tasks SET status = ? WHERE id = ?", status, task.getId());
+	}
+
+	private long samples(String metric) {
+		return jdbcTemplate.queryForObject("SELECT COALESCE(sum(count), 0) FROM cycle_time_histogram"
+				+ " WHERE executor_id = ? AND metric = ?", Long.class, executor.getId(), metric);
+	}
+
+	private LocalDateTime firstCompletedAt(Task task) {
+		return jdbcTemplate.queryForObject("SELECT first_completed_at FROM tasks WHERE id = ?",
+				LocalDateTime.class, task.getId());
+	}
+
+	private LocalDateTime completedAt(Task task) {
+		return jdbcTemplate.queryForObject("SELECT completed_at FROM tasks WHERE id = ?",
+				LocalDateTime.class, task.getId());
+	}
+
+	private Task saveTask(TaskStatus status) {
+		return taskRepository.save(Task.builder()
+				.title("cycle")
+				.description("cycle time test")
+				.status(status)
+				.priority(TaskPriority.LOW)
+				.author(executor)
+				.executor(executor)
+				.build());
+	}
+}
\ No newline at end of file
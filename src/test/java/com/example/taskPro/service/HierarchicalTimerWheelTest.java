@@ -0,0 +1,68 @@
+package com.example.taskPro.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimerWheelTest {
+
+	@Test
+	void firesExactlyAtDeadlineAcrossLevels() {
+		HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1000, 3, 0);
+		wheel.schedule(1L, 5_000);
+		wheel.schedule(2L, 64_000);
+		wheel.schedule(3L, 5_000_000);
+
+		assertTrue(wheel.advanceTo(4_999).isEmpty());
+		assertEquals(List.of(1L), wheel.advanceTo(5_000));
+		assertTrue(wheel.advanceTo(63_999).isEmpty());
+		assertEquals(List.of(2L), wheel.advanceTo(64_000));
+		assertTrue(wheel.advanceTo(4_999_999).isEmpty());
+		assertEquals(List.of(3L), wheel.advanceTo(5_000_000));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void supportsCancelRescheduleAndPastDeadlines() {
+		HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1000, 2, 10_000);
+		wheel.schedule(1L, 20_000);
+		wheel.schedule(2L, 20_000);
+		wheel.schedule(3L, 1_000);
+
+		assertTrue(wheel.cancel(1L));
+		wheel.schedule(2L, 30_000);
+
+		assertEquals(List.of(3L), wheel.advanceTo(11_000));
+		assertTrue(wheel.advanceTo(29_999).isEmpty());
+		assertEquals(List.of(2L), wheel.advanceTo(30_000));
+	}
+
+	@Test
+	void neverFiresEarlyOrLateForRandomDeadlines() {
+		// Два уровня по 64 тика: часть сроков заведомо лежит за горизонтом колеса
+		HierarchicalTimerWheel wheel = new HierarchicalTimerWheel(1, 2, 0);
+		Map<Long, Long> deadlines = new HashMap<>();
+		Random random = new Random(7);
+		for (long id = 0; id < 10_000; id++) {
+			long deadline = 1 + random.nextInt(20_000);
+			deadlines.put(id, deadline);
+			wheel.schedule(id, deadline);
+		}
+
+		List<Long> fired = new ArrayList<>();
+		for (long now = 1; now <= 20_000; now++) {
+			for (Long id : wheel.advanceTo(now)) {
+				assertEquals(deadlines.get(id), now, "Таймер " + id);
+				fired.add(id);
+			}
+		}
+		assertEquals(deadlines.size(), fired.size());
+	}
+}
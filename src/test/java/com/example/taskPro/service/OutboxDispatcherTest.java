@@ -0,0 +1,132 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.model.OutboxEvent;
+import com.example.taskPro.model.OutboxEventType;
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import com.example.taskPro.model.User;
+import com.example.taskPro.notification.InMemoryNotificationSink;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.repository.UserRepository;
+import com.example.taskPro.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Плановый запуск диспетчера отложен, тесты вызывают его напрямую
+@SpringBootTest(properties = {"taskpro.outbox.sink=memory", "taskpro.outbox.initial-delay-ms=3600000",
+		"taskpro.outbox.backoff-initial-ms=0"})
+class OutboxDispatcherTest {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private OutboxDispatcher outboxDispatcher;
+
+	@Autowired
+	private InMemoryNotificationSink sink;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestFixtures fixtures;
+	private User admin;
+	private User executor;
+	private Task task;
+
+	// Диспетчер обрабатывает всю очередь, поэтому проверки и очистка касаются только событий задачи теста
+	@BeforeEach
+	void setUp() {
+		sink.clear();
+		fixtures = new TestFixtures(userRepository, jdbcTemplate, "outbox");
+		admin = fixtures.saveUser(Role.ADMIN);
+		executor = fixtures.saveUser(Role.USER);
+		task = taskRepository.save(Task.builder()
+				.title("outbox")
+				.description("outbox test")
+				.status(TaskStatus.PENDING)
+				.priority(TaskPriority.LOW)
+				.author(admin)
+				.build());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		fixtures.cleanUp();
+	}
+
+	@Test
+	void deliversAssignmentAndStatusEventsAndRemovesThem() {
+		taskService.assignExecutor(task.getId(), executor.getId(), fixtures.auth(admin));
+		taskService.updateTaskStatus(task.getId(), "in_progress", fixtures.auth(executor));
+
+		outboxDispatcher.dispatchPending();
+
+		assertEquals(List.of(OutboxEventType.TASK_ASSIGNED, OutboxEventType.TASK_STATUS_CHANGED),
+				delivered().stream().map(OutboxEvent::getEventType).toList());
+		assertEquals(executor.getId(), delivered().get(0).getRecipientId());
+		assertEquals(0, countOutbox());
+	}
+
+	@Test
+	void retriesFailedDelivery() {
+		taskService.assignExecutor(task.getId(), executor.getId(), fixtures.auth(admin));
+		sink.failNext(1);
+
+		outboxDispatcher.dispatchPending();
+		assertEquals(0, delivered().size());
+		assertEquals(1, jdbcTemplate.queryForObject("SELECT attempts FROM task_outbox WHERE task_id = ?",
+				Integer.class, task.getId()));
+
+		outboxDispatcher.dispatchPending();
+		assertEquals(1, delivered().size());
+		assertEquals(0, countOutbox());
+	}
+
+	@Test
+	@Tag("benchmark")
+	void measuresDeliveryThroughput() {
+		int events = 50_000;
+		List<Object[]> rows = new ArrayList<>(events);
+		for (int i = 0; i < events; i++) {
+			rows.add(new Object[]{task.getId(), executor.getId()});
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO task_outbox (event_type, task_id, recipient_id, payload)"
+				+ " VALUES ('TASK_ASSIGNED', ?, ?, '{}')", rows);
+
+		long start = System.nanoTime();
+		int delivered = outboxDispatcher.dispatchPending();
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		assertEquals(events, delivered().size());
+		System.out.printf("Outbox: %d событий за %.2f с, %.0f событий/с на узел%n",
+				delivered, seconds, delivered / seconds);
+	}
+
+	private List<OutboxEvent> delivered() {
+		return sink.getDelivered().stream().filter(event -> task.getId().equals(event.getTaskId())).toList();
+	}
+
+	private int countOutbox() {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM task_outbox WHERE task_id = ?", Integer.class,
+				task.getId());
+	}
+}
@@ -0,0 +1,233 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.dto.taskDto.TaskChangesDto;
+import com.example.taskPro.exception.UnauthorizedActionException;
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.repository.UserRepository;
+import com.example.taskPro.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Лента изменений по токену. База общая, поэтому ленту читает исполнитель теста (она ограничена его задачами),
+// а токен берётся из последовательности task_change_seq перед действиями теста
+@SpringBootTest
+class TaskChangesTest {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<Long> taskIds = new ArrayList<>();
+	private TestFixtures fixtures;
+	private User admin;
+	private User executor;
+	private User other;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(userRepository, jdbcTemplate, "changes");
+		admin = fixtures.saveUser(Role.ADMIN);
+		executor = fixtures.saveUser(Role.USER);
+		other = fixtures.saveUser(Role.USER);
+	}
+
+	// Tombstone остаются после удаления задач и с пользователями не связаны, поэтому убираются по id задач
+	@AfterEach
+	void cleanUp() {
+		for (Long taskId : taskIds) {
+			jdbcTemplate.update("DELETE FROM task_tombstones WHERE task_id = ?", taskId);
+		}
+		fixtures.cleanUp();
+	}
+
+	@Test
+	void createdAndUpdatedTasksAfterTokenAppear() {
+		Task before = saveTask(executor);
+		long since = currentToken();
+		Task created = saveTask(executor);
+		taskService.updateTaskStatus(before.getId(), "in_progress", fixtures.auth(executor));
+
+		TaskChangesDto changes = changes(since, executor);
+
+		assertEquals(List.of(created.getId(), before.getId()), updatedIds(changes));
+		assertEquals(List.of(), changes.getDeleted());
+		assertEquals(changeSeq(before), changes.getNextToken());
+		assertFalse(changes.isHasMore());
+
+		// С новым токеном приходят только последующие изменения
+		taskService.updateTaskStatus(created.getId(), "in_progress", fixtures.auth(executor));
+		TaskChangesDto next = changes(changes.getNextToken(), executor);
+		assertEquals(List.of(created.getId()), updatedIds(next));
+	}
+
+	@Test
+	void deletedTaskComesAsTombstone() {
+		Task task = saveTask(executor);
+		long since = currentToken();
+
+		taskService.deleteTask(task.getId(), fixtures.auth(admin));
+
+		TaskChangesDto changes = changes(since, executor);
+		assertEquals(List.of(), updatedIds(changes));
+		assertEquals(List.of(task.getId()), changes.getDeleted());
+		assertTrue(changes.getNextToken() > since);
+	}
+
+	@Test
+	void reassignmentRemovesTaskFromPreviousExecutor() {
+		Task task = saveTask(executor);
+		long since = currentToken();
+
+		taskService.assignExecutor(task.getId(), other.getId(), fixtures.auth(admin));
+
+		TaskChangesDto previous = changes(since, executor);
+		assertEquals(List.of(), updatedIds(previous));
+		assertEquals(List.of(task.getId()), previous.getDeleted());
+
+		TaskChangesDto current = changes(since, other);
+		assertEquals(List.of(task.getId()), updatedIds(current));
+		assertEquals(List.of(), current.getDeleted());
+	}
+
+	@Test
+	void userSeesOnlyOwnTasks() {
+		long since = currentToken();
+		Task own = saveTask(executor);
+		saveTask(other);
+		saveTask(null);
+
+		TaskChangesDto changes = changes(since, executor);
+
+		assertEquals(List.of(own.getId()), updatedIds(changes));
+		assertThrows(UnauthorizedActionException.class,
+				() -> taskService.getChangesSince(since, other.getId(), 100, fixtures.auth(executor)));
+	}
+
+	@Test
+	void pagesWithHasMoreUntilFeedIsExhausted() {
+		long since = currentToken();
+		List<Long> expected = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			expected.add(saveTask(executor).getId());
+		}
+
+		List<Long> received = new ArrayList<>();
+		long token = since;
+		List<Boolean> hasMore = new ArrayList<>();
+		TaskChangesDto page;
+		do {
+			page = taskService.getChangesSince(token, null, 2, fixtures.auth(executor));
+			assertTrue(page.getUpdated().size() <= 2);
+			received.addAll(updatedIds(page));
+			hasMore.add(page.isHasMore());
+			token = page.getNextToken();
+		} while (page.isHasMore());
+
+		assertEquals(expected, received);
+		assertEquals(List.of(true, true, false), hasMore);
+		assertEquals(changeSeq(taskRepository.findById(expected.get(4)).orElseThrow()), token);
+	}
+
+	@Test
+	void tokenDoesNotPassChangesOfOpenTransaction() throws Exception {
+		Task held = saveTask(executor);
+		Task committed = saveTask(executor);
+		long since = currentToken();
+
+		CountDownLatch updated = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		Future<?> writer = pool.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+			// Номер изменения выдан, но транзакция ещё не зафиксирована
+			jdbcTemplate.update("UPDATE tasks SET title = 'held' WHERE id = ?", held.getId());
+			updated.countDown();
+			try {
+				assertTrue(release.await(10, TimeUnit.SECONDS));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+		}));
+		try {
+			assertTrue(updated.await(10, TimeUnit.SECONDS));
+			jdbcTemplate.update("UPDATE tasks SET title = 'committed' WHERE id = ?", committed.getId());
+
+			// Более позднее зафиксированное изменение не отдаётся, пока меньший номер не зафиксирован
+			TaskChangesDto whileOpen = changes(since, executor);
+			assertEquals(List.of(), updatedIds(whileOpen));
+			assertEquals(since, whileOpen.getNextToken());
+		} finally {
+			release.countDown();
+			writer.get(10, TimeUnit.SECONDS);
+			pool.shutdown();
+		}
+
+		TaskChangesDto afterCommit = changes(since, executor);
+		assertEquals(List.of(held.getId(), committed.getId()), updatedIds(afterCommit));
+		assertTrue(changeSeq(held) < changeSeq(committed));
+		assertEquals(changeSeq(committed), afterCommit.getNextToken());
+	}
+
+	private TaskChangesDto changes(long since, User user) {
+		return taskService.getChangesSince(since, null, 100, fixtures.auth(user));
+	}
+
+	private List<Long> updatedIds(TaskChangesDto changes) {
+		return changes.getUpdated().stream().map(Task::getId).toList();
+	}
+
+	private long currentToken() {
+		return jdbcTemplate.queryForObject("SELECT last_value FROM task_change_seq", Long.class);
+	}
+
+	private long changeSeq(Task task) {
+		return jdbcTemplate.queryForObject("SELECT change_seq FROM tasks WHERE id = ?", Long.class, task.getId());
+	}
+
+	private Task saveTask(User taskExecutor) {
+		Task task = taskRepository.save(Task.builder()
+				.title("changes")
+				.description("changes feed test")
+				.status(TaskStatus.PENDING)
+				.priority(TaskPriority.LOW)
+				.author(admin)
+				.executor(taskExecutor)
+				.build());
+		taskIds.add(task.getId());
+		return task;
+	}
+}
@@ -0,0 +1,122 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.repository.UserRepository;
+import com.example.taskPro.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// claimNextTask забирает любую свободную задачу базы, поэтому тест работает в своей схеме:
+// исполнители разбирают только созданные тестом задачи, а чужие строки не трогаются
+@SpringBootTest(properties = {
+		"spring.datasource.hikari.schema=taskpro_claim_test",
+		"spring.flyway.schemas=taskpro_claim_test",
+		"spring.flyway.default-schema=taskpro_claim_test"
+})
+class TaskClaimConcurrencyTest {
+	private static final int CLAIMERS = 16;
+	private static final int TASKS = 400;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Long> taskIds = new ArrayList<>();
+	private TestFixtures fixtures;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(userRepository, jdbcTemplate, "claim");
+	}
+
+	@AfterEach
+	void cleanUp() {
+		fixtures.cleanUp();
+	}
+
+	@Test
+	void parallelClaimersNeverClaimTheSameTask() throws Exception {
+		User admin = fixtures.saveUser(Role.ADMIN);
+		List<User> workers = new ArrayList<>();
+		for (int i = 0; i < CLAIMERS; i++) {
+			workers.add(fixtures.saveUser(Role.USER));
+		}
+		for (int i = 0; i < TASKS; i++) {
+			Task task = taskRepository.save(Task.builder()
+					.title("claim-" + i)
+					.description("claim test")
+					.status(TaskStatus.PENDING)
+					.priority(TaskPriority.values()[i % TaskPriority.values().length])
+					.author(admin)
+					.build());
+			taskIds.add(task.getId());
+		}
+
+		Map<Long, Long> claimedBy = new ConcurrentHashMap<>();
+		Set<Long> ownTasks = Set.copyOf(taskIds);
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(CLAIMERS);
+		List<Future<Integer>> results = new ArrayList<>();
+		for (User worker : workers) {
+			Authentication auth = fixtures.auth(worker);
+			results.add(pool.submit(() -> {
+				start.await();
+				int claimed = 0;
+				Optional<Task> next;
+				while ((next = taskService.claimNextTask(auth)).isPresent()) {
+					Long taskId = next.get().getId();
+					assertTrue(ownTasks.contains(taskId), "Взята чужая задача " + taskId);
+					assertNull(claimedBy.putIfAbsent(taskId, worker.getId()), "Задача " + taskId + " взята дважды");
+					claimed++;
+				}
+				return claimed;
+			}));
+		}
+		start.countDown();
+
+		int total = 0;
+		for (Future<Integer> result : results) {
+			total += result.get();
+		}
+		pool.shutdown();
+
+		assertEquals(TASKS, total);
+		for (Task task : taskRepository.findAllById(taskIds)) {
+			assertEquals(TaskStatus.IN_PROGRESS, task.getStatus());
+			assertEquals(claimedBy.get(task.getId()), task.getExecutor().getId());
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.repository.UserRepository;
+import com.example.taskPro.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Плановый досчёт отложен, тесты вызывают его напрямую
+@SpringBootTest(properties = "taskpro.deadlines.catch-up-interval-ms=3600000")
+class TaskDeadlineServiceTest {
+
+	@Autowired
+	private TaskDeadlineService taskDeadlineService;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private TestFixtures fixtures;
+	private User admin;
+	private User executor;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(userRepository, jdbcTemplate, "deadline");
+		admin = fixtures.saveUser(Role.ADMIN);
+		executor = fixtures.saveUser(Role.USER);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		fixtures.cleanUp();
+	}
+
+	@Test
+	void schedulesDeadlineOnlyAfterCommit() {
+		Task task = transactionTemplate.execute(status -> {
+			Task created = taskService.createTask(newTask(LocalDateTime.now().plusHours(1)), fixtures.auth(admin));
+			assertFalse(taskDeadlineService.isScheduled(created.getId()), "Срок поставлен до коммита");
+			return created;
+		});
+		assertTrue(taskDeadlineService.isScheduled(task.getId()));
+
+		taskService.updateTaskStatus(task.getId(), "completed", fixtures.auth(executor));
+		assertFalse(taskDeadlineService.isScheduled(task.getId()));
+	}
+
+	@Test
+	void rolledBackChangeLeavesNoTimer() {
+		Long[] taskId = new Long[1];
+		transactionTemplate.executeWithoutResult(status -> {
+			taskId[0] = taskService.createTask(newTask(LocalDateTime.now().plusHours(1)), fixtures.auth(admin)).getId();
+			status.setRollbackOnly();
+		});
+
+		assertFalse(taskDeadlineService.isScheduled(taskId[0]));
+	}
+
+	@Test
+	void firesDueDeadlineAndWritesOutboxEvent() throws InterruptedException {
+		Task task = taskService.createTask(newTask(LocalDateTime.now().minusMinutes(1)), fixtures.auth(admin));
+
+		// Наступивший срок срабатывает на ближайшем тике колеса; отметку может поставить и плановый тик,
+		// важно, что она одна и событие одно
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (overdueAt(task.getId()) == null && System.currentTimeMillis() < deadline) {
+			taskDeadlineService.fireDueDeadlines();
+			Thread.sleep(100);
+		}
+
+		assertNotNull(overdueAt(task.getId()));
+		assertEquals(1, overdueEvents(task.getId()));
+		assertFalse(taskDeadlineService.isScheduled(task.getId()));
+	}
+
+	@Test
+	void markOverdueIsIdempotentAndSkipsCompletedAndFutureTasks() {
+		LocalDateTime now = LocalDateTime.now();
+		Task due = saveTask(TaskStatus.IN_PROGRESS, now.minusMinutes(5));
+		Task completed = saveTask(TaskStatus.COMPLETED, now.minusMinutes(5));
+		Task future = saveTask(TaskStatus.PENDING, now.plusHours(1));
+		List<Long> ids = List.of(due.getId(), completed.getId(), future.getId());
+
+		assertEquals(1, markOverdue(ids, now));
+		assertEquals(0, markOverdue(ids, now));
+
+		assertNotNull(overdueAt(due.getId()));
+		assertNull(overdueAt(completed.getId()));
+		assertNull(overdueAt(future.getId()));
+		assertEquals(1, overdueEvents(due.getId()));
+	}
+
+	@Test
+	void reopeningCompletedTaskClearsOverdueMark() {
+		Task task = saveTask(TaskStatus.IN_PROGRESS, LocalDateTime.now().minusMinutes(5));
+		markOverdue(List.of(task.getId()), LocalDateTime.now());
+
+		jdbcTemplate.update("UPDATE tasks SET status = 'COMPLETED' WHERE id = ?", task.getId());
+		assertNotNull(overdueAt(task.getId()));
+		jdbcTemplate.update("UPDATE tasks SET status = 'IN_PROGRESS' WHERE id = ?", task.getId());
+
+		assertNull(overdueAt(task.getId()));
+	}
+
+	@Test
+	void catchUpMarksDeadlinesMissingFromTheWheel() {
+		// Задача записана в обход сервиса, как если бы срок поставил другой узел
+		Task task = saveTask(TaskStatus.PENDING, LocalDateTime.now().minusHours(1));
+		assertFalse(taskDeadlineService.isScheduled(task.getId()));
+
+		taskDeadlineService.catchUpOverdue();
+
+		assertNotNull(overdueAt(task.getId()));
+		assertEquals(1, overdueEvents(task.getId()));
+	}
+
+	private int markOverdue(List<Long> ids, LocalDateTime now) {
+		Integer marked = transactionTemplate.execute(status -> taskRepository.markOverdue(ids, now));
+		return marked == null ? 0 : marked;
+	}
+
+	private LocalDateTime overdueAt(Long taskId) {
+		return jdbcTemplate.queryForObject("SELECT overdue_at FROM tasks WHERE id = ?", LocalDateTime.class, taskId);
+	}
+
+	private int overdueEvents(Long taskId) {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM task_outbox WHERE task_id = ?"
+				+ " AND event_type = 'TASK_OVERDUE'", Integer.class, taskId);
+	}
+
+	private Task newTask(LocalDateTime dueAt) {
+		return Task.builder()
+				.title("deadline")
+				.description("deadline test")
+				.status(TaskStatus.PENDING)
+				.priority(TaskPriority.MEDIUM)
+				.executor(User.builder().id(executor.getId()).build())
+				.dueAt(dueAt)
+				.build();
+	}
+
+	private Task saveTask(TaskStatus status, LocalDateTime dueAt) {
+		return taskRepository.save(Task.builder()
+				.title("deadline")
+				.description("deadline test")
+				.status(status)
+				.priority(TaskPriority.LOW)
+				.author(admin)
+				.executor(executor)
+				.dueAt(dueAt)
+				.build());
+	}
+}
\ No newline at end of file
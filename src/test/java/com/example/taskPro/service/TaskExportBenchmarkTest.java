@@ -0,0 +1,102 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.dto.taskDto.TaskExportFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Выгрузка 10M строк: живая куча после сборки мусора не должна расти вместе с числом выгруженных строк.
+// Таблица задач заполняется заново, поэтому бенчмарк работает в отдельной схеме
+@SpringBootTest(properties = {
+		"spring.datasource.hikari.schema=taskpro_benchmark",
+		"spring.flyway.schemas=taskpro_benchmark",
+		"spring.flyway.default-schema=taskpro_benchmark"
+})
+@Tag("benchmark")
+class TaskExportBenchmarkTest {
+	private static final int TASKS = 10_000_000;
+	private static final long SAMPLE_EVERY_BYTES = 64L * 1024 * 1024;
+	private static final long MAX_HEAP_GROWTH = 64L * 1024 * 1024;
+
+	@Autowired
+	private TaskExportService taskExportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.execute("TRUNCATE users, tasks, comments RESTART IDENTITY CASCADE");
+	}
+
+	@Test
+	void exportOfTenMillionRowsKeepsHeapFlat() {
+		jdbcTemplate.execute("TRUNCATE users, tasks, comments RESTART IDENTITY CASCADE");
+		jdbcTemplate.update("INSERT INTO users (email, password, role) VALUES ('export@example.com', 'password', 'ADMIN')");
+		jdbcTemplate.update("INSERT INTO tasks (title, description, status, priority, author_id)"
+				+ " SELECT 'export ' || g, 'описание, \"с кавычками\"' || g,"
+				+ " (ARRAY['PENDING', 'IN_PROGRESS', 'COMPLETED'])[1 + g % 3],"
+				+ " (ARRAY['LOW', 'MEDIUM', 'HIGH'])[1 + (g / 3) % 3], 1"
+				+ " FROM generate_series(1, ?) g", TASKS);
+
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		long baseline = liveHeap(memory);
+		HeapSamplingStream out = new HeapSamplingStream(memory);
+
+		long start = System.nanoTime();
+		long rows = taskExportService.exportTasks(TaskExportFormat.CSV, null, null, out);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("Выгрузка: %d строк за %.1f с, %.0f строк/с, %.1f МБ; рост живой кучи до %.1f МБ%n",
+				rows, seconds, rows / seconds, out.bytes / 1024.0 / 1024,
+				(out.maxLiveHeap - baseline) / 1024.0 / 1024);
+
+		assertEquals(TASKS, rows);
+		assertTrue(out.maxLiveHeap - baseline < MAX_HEAP_GROWTH,
+				"Рост живой кучи: " + (out.maxLiveHeap - baseline) + " байт");
+	}
+
+	private static long liveHeap(MemoryMXBean memory) {
+		memory.gc();
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+	// Отбрасывает данные и периодически замеряет кучу после полной сборки мусора
+	private static class HeapSamplingStream extends OutputStream {
+		private final MemoryMXBean memory;
+		private long bytes;
+		private long nextSample = SAMPLE_EVERY_BYTES;
+		private long maxLiveHeap;
+
+		HeapSamplingStream(MemoryMXBean memory) {
+			this.memory = memory;
+		}
+
+		@Override
+		public void write(int b) {
+			count(1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count(len);
+		}
+
+		private void count(int len) {
+			bytes += len;
+			if (bytes >= nextSample) {
+				nextSample += SAMPLE_EVERY_BYTES;
+				maxLiveHeap = Math.max(maxLiveHeap, liveHeap(memory));
+			}
+		}
+	}
+}
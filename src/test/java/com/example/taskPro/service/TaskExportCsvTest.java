@@ -0,0 +1,38 @@
+package com.example.taskPro.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TaskExportCsvTest {
+
+	@Test
+	void leavesPlainValuesUnquoted() throws IOException {
+		assertEquals("Задача 1", csv("Задача 1"));
+		assertEquals("", csv(""));
+		assertEquals("", csv(null));
+	}
+
+	@Test
+	void quotesValuesWithSeparatorsAndLineBreaks() throws IOException {
+		assertEquals("\"a,b\"", csv("a,b"));
+		assertEquals("\"first\nsecond\"", csv("first\nsecond"));
+		assertEquals("\"first\r\nsecond\"", csv("first\r\nsecond"));
+	}
+
+	@Test
+	void doublesQuotes() throws IOException {
+		assertEquals("\"say \"\"hi\"\"\"", csv("say \"hi\""));
+		assertEquals("\"\"\"\"", csv("\""));
+		assertEquals("\"\"\",\n\"\"\"", csv("\",\n\""));
+	}
+
+	private String csv(String value) throws IOException {
+		StringWriter writer = new StringWriter();
+		TaskExportService.writeCsvValue(writer, value);
+		return writer.toString();
+	}
+}
@@ -0,0 +1,68 @@
+package com.example.taskPro.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+// Миллион задач пишется в отдельную схему: прерванный запуск не оставит их в рабочей базе разработчика
+@SpringBootTest(properties = {
+		"spring.datasource.hikari.schema=taskpro_benchmark",
+		"spring.flyway.schemas=taskpro_benchmark",
+		"spring.flyway.default-schema=taskpro_benchmark"
+})
+@Tag("benchmark")
+class TaskSearchBenchmarkTest {
+	private static final int TASKS = 1_000_000;
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.execute("TRUNCATE users, tasks, comments RESTART IDENTITY CASCADE");
+	}
+
+	@Test
+	void searchOverMillionTasks() {
+		jdbcTemplate.execute("TRUNCATE users, tasks, comments RESTART IDENTITY CASCADE");
+		Long authorId = jdbcTemplate.queryForObject("INSERT INTO users (email, password, role)"
+				+ " VALUES ('search-author@example.com', 'password', 'ADMIN') RETURNING id", Long.class);
+		Long executorId = jdbcTemplate.queryForObject("INSERT INTO users (email, password, role)"
+				+ " VALUES ('search-executor@example.com', 'password', 'USER') RETURNING id", Long.class);
+		jdbcTemplate.update("INSERT INTO tasks (title, status, priority, author_id, executor_id)"
+				+ " SELECT 'bench ' || g,"
+				+ " (ARRAY['PENDING', 'IN_PROGRESS', 'COMPLETED'])[1 + g % 3],"
+				+ " (ARRAY['LOW', 'MEDIUM', 'HIGH'])[1 + (g / 3) % 3],"
+				+ " ?, CASE WHEN g % 5 = 0 THEN NULL ELSE ? END"
+				+ " FROM generate_series(1, ?) g", authorId, executorId, TASKS);
+		jdbcTemplate.execute("ANALYZE tasks");
+
+		measure("status=PENDING, sort=priority",
+				() -> taskService.searchTasks(List.of("PENDING"), null, null, null, false, "priority", 0, 50));
+		measure("executor + status + priority, sort=priority",
+				() -> taskService.searchTasks(List.of("IN_PROGRESS"), List.of("HIGH", "MEDIUM"), null,
+						executorId, false, "priority", 0, 50));
+		measure("author + unassigned, sort=id",
+				() -> taskService.searchTasks(null, null, authorId, null, true, "id", 0, 50));
+		measure("status=PENDING, page 100",
+				() -> taskService.searchTasks(List.of("PENDING"), null, null, null, false, "priority", 100, 50));
+	}
+
+	private void measure(String name, Runnable query) {
+		query.run();
+		int runs = 20;
+		long start = System.nanoTime();
+		for (int i = 0; i < runs; i++) {
+			query.run();
+		}
+		System.out.printf("Поиск [%s]: %.2f мс на запрос%n", name, (System.nanoTime() - start) / 1e6 / runs);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.exception.InvalidTaskQueryException;
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.repository.UserRepository;
+import com.example.taskPro.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class TaskSearchTest {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestFixtures fixtures;
+	private User author;
+	private User executor;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(userRepository, jdbcTemplate, "search");
+		author = fixtures.saveUser(Role.ADMIN);
+		executor = fixtures.saveUser(Role.USER);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		fixtures.cleanUp();
+	}
+
+	@Test
+	void combinesFiltersAndSortsByPriority() {
+		Task low = saveTask(TaskStatus.PENDING, TaskPriority.LOW, null);
+		Task high = saveTask(TaskStatus.PENDING, TaskPriority.HIGH, null);
+		Task medium = saveTask(TaskStatus.IN_PROGRESS, TaskPriority.MEDIUM, null);
+		saveTask(TaskStatus.COMPLETED, TaskPriority.HIGH, null);
+		saveTask(TaskStatus.PENDING, TaskPriority.HIGH, executor);
+
+		Page<Task> result = taskService.searchTasks(List.of("pending", "in_progress"), null, author.getId(), null,
+				true, "priority", 0, 10);
+
+		assertEquals(List.of(high.getId(), medium.getId(), low.getId()),
+				result.getContent().stream().map(Task::getId).toList());
+		assertEquals(3, result.getTotalElements());
+	}
+
+	@Test
+	void filtersByPriorityAndExecutor() {
+		Task assigned = saveTask(TaskStatus.PENDING, TaskPriority.HIGH, executor);
+		saveTask(TaskStatus.PENDING, TaskPriority.LOW, executor);
+		saveTask(TaskStatus.PENDING, TaskPriority.HIGH, null);
+
+		Page<Task> result = taskService.searchTasks(null, List.of("high"), author.getId(), executor.getId(),
+				false, "id", 0, 10);
+
+		assertEquals(List.of(assigned.getId()), result.getContent().stream().map(Task::getId).toList());
+	}
+
+	@Test
+	void sortsByLastCommentActivity() {
+		Task silent = saveTask(TaskStatus.PENDING, TaskPriority.HIGH, null);
+		Task older = saveTask(TaskStatus.PENDING, TaskPriority.LOW, null);
+		Task recent = saveTask(TaskStatus.PENDING, TaskPriority.LOW, null);
+		LocalDateTime now = LocalDateTime.now();
+		setLastCommentAt(older, now.minusDays(2));
+		setLastCommentAt(recent, now.minusHours(1));
+
+		Page<Task> result = taskService.searchTasks(null, null, author.getId(), null, false, "activity", 0, 10);
+
+		assertEquals(List.of(recent.getId(), older.getId(), silent.getId()),
+				result.getContent().stream().map(Task::getId).toList());
+	}
+
+	@Test
+	void rejectsContradictoryExecutorFilter() {
+		assertThrows(InvalidTaskQueryException.class, () -> taskService.searchTasks(null, null, null,
+				executor.getId(), true, "id", 0, 10));
+		assertThrows(InvalidTaskQueryException.class, () -> taskService.searchTasks(null, null, null,
+				null, false, "title", 0, 10));
+	}
+
+	private void setLastCommentAt(Task task, LocalDateTime lastCommentAt) {
+		jdbcTemplate.update("UPDATE tasks SET last_comment_at = ? WHERE id = ?", lastCommentAt, task.getId());
+	}
+
+	private Task saveTask(TaskStatus status, TaskPriority priority, User taskExecutor) {
+		return taskRepository.save(Task.builder()
+				.title("search")
+				.description("search test")
+				.status(status)
+				.priority(priority)
+				.author(author)
+				.executor(taskExecutor)
+				.build());
+	}
+}
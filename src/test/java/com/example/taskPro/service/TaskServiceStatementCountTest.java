@@ -0,0 +1,139 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.exception.TaskNotFoundException;
+import com.example.taskPro.exception.UnauthorizedActionException;
+import com.example.taskPro.exception.UserNotFoundException;
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.Task;
+import com.example.taskPro.model.TaskPriority;
+import com.example.taskPro.model.TaskStatus;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.TaskRepository;
+import com.example.taskPro.repository.UserRepository;
+import com.example.taskPro.support.TestFixtures;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Фиксирует число SQL-запросов в изменяющих методах TaskService
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TaskServiceStatementCountTest {
+
+	@Autowired
+	private TaskService taskService;
+
+	@Autowired
+	private TaskRepository taskRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private TestFixtures fixtures;
+	private Statistics statistics;
+	private User admin;
+	private User executor;
+	private Task task;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(userRepository, jdbcTemplate, "statements");
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		admin = fixtures.saveUser(Role.ADMIN);
+		executor = fixtures.saveUser(Role.USER);
+		task = taskRepository.save(Task.builder()
+				.title("statements")
+				.description("statement count test")
+				.status(TaskStatus.PENDING)
+				.priority(TaskPriority.LOW)
+				.author(admin)
+				.executor(executor)
+				.build());
+	}
+
+	@AfterEach
+	void cleanUp() {
+		fixtures.cleanUp();
+	}
+
+	@Test
+	void statusChangeCostsAtMostTwoStatements() {
+		long statements = countStatements(
+				() -> taskService.updateTaskStatus(task.getId(), "in_progress", fixtures.auth(executor)));
+		assertTrue(statements <= 2, "Запросов: " + statements);
+	}
+
+	@Test
+	void priorityChangeCostsAtMostTwoStatements() {
+		long statements = countStatements(
+				() -> taskService.updateTaskPriority(task.getId(), "high", fixtures.auth(admin)));
+		assertTrue(statements <= 2, "Запросов: " + statements);
+	}
+
+	@Test
+	void assignmentCostsAtMostTwoStatements() {
+		long statements = countStatements(
+				() -> taskService.assignExecutor(task.getId(), executor.getId(), fixtures.auth(admin)));
+		assertTrue(statements <= 2, "Запросов: " + statements);
+	}
+
+	@Test
+	void deleteCostsOneStatement() {
+		assertEquals(1, countStatements(() -> taskService.deleteTask(task.getId(), fixtures.auth(admin))));
+	}
+
+	// Исполнитель читается перед вставкой, чтобы вернуть задачу с загруженным исполнителем
+	@Test
+	void createWithExecutorCostsTwoStatements() {
+		Task newTask = Task.builder()
+				.title("created")
+				.description("statement count test")
+				.status(TaskStatus.PENDING)
+				.priority(TaskPriority.MEDIUM)
+				.executor(User.builder().id(executor.getId()).build())
+				.build();
+		assertEquals(2, countStatements(() -> taskService.createTask(newTask, fixtures.auth(admin))));
+	}
+
+	@Test
+	void keepsNotFoundAndAuthorizationSemantics() {
+		assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(-1L, fixtures.auth(admin)));
+		assertThrows(TaskNotFoundException.class,
+				() -> taskService.updateTaskPriority(-1L, "high", fixtures.auth(admin)));
+		assertThrows(TaskNotFoundException.class,
+				() -> taskService.updateTaskStatus(-1L, "completed", fixtures.auth(executor)));
+		assertThrows(UserNotFoundException.class,
+				() -> taskService.assignExecutor(task.getId(), -1L, fixtures.auth(admin)));
+		assertThrows(UserNotFoundException.class, () -> taskService.createTask(Task.builder()
+				.title("missing executor")
+				.status(TaskStatus.PENDING)
+				.priority(TaskPriority.LOW)
+				.executor(User.builder().id(-1L).build())
+				.build(), fixtures.auth(admin)));
+		assertThrows(UnauthorizedActionException.class,
+				() -> taskService.updateTaskStatus(task.getId(), "completed", fixtures.auth(admin)));
+		assertThrows(UnauthorizedActionException.class,
+				() -> taskService.updateTaskPriority(task.getId(), "high", fixtures.auth(executor)));
+	}
+
+	private long countStatements(Runnable action) {
+		statistics.clear();
+		action.run();
+		return statistics.getPrepareStatementCount();
+	}
+}
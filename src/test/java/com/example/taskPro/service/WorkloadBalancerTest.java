@@ -0,0 +1,76 @@
+package com.example.taskPro.service;
+
+import com.example.taskPro.model.TaskPriority;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkloadBalancerTest {
+
+	@Test
+	void assignsToLeastLoadedExecutor() {
+		WorkloadBalancer balancer = new WorkloadBalancer(Map.of(1L, 5L, 2L, 0L, 3L, 2L));
+
+		assertEquals(2L, balancer.assign(TaskPriority.HIGH));
+		assertEquals(3L, balancer.assign(TaskPriority.LOW));
+		assertEquals(2L, balancer.assign(TaskPriority.LOW));
+	}
+
+	@Test
+	void releasedWeightReturnsExecutorToFront() {
+		WorkloadBalancer balancer = new WorkloadBalancer(Map.of(1L, 0L, 2L, 1L));
+
+		assertEquals(1L, balancer.assign(TaskPriority.HIGH));
+		assertEquals(2L, balancer.assign(TaskPriority.LOW));
+		balancer.release(1L, TaskPriority.HIGH);
+
+		// У исполнителя 1 снова нулевая нагрузка, устаревшая запись с нагрузкой 3 пропускается
+		assertEquals(1L, balancer.assign(TaskPriority.HIGH));
+		assertEquals(2L, balancer.assign(TaskPriority.LOW));
+	}
+
+	@Test
+	void keepsLoadBalancedWithinOneTaskWeight() {
+		Map<Long, Long> initial = new HashMap<>();
+		for (long id = 1; id <= 100; id++) {
+			initial.put(id, 0L);
+		}
+		WorkloadBalancer balancer = new WorkloadBalancer(initial);
+		Map<Long, Long> loads = new HashMap<>(initial);
+		Random random = new Random(42);
+		for (int i = 0; i < 10_000; i++) {
+			TaskPriority priority = TaskPriority.values()[random.nextInt(TaskPriority.values().length)];
+			loads.merge(balancer.assign(priority), (long) priority.getWeight(), Long::sum);
+		}
+
+		long min = loads.values().stream().mapToLong(Long::longValue).min().orElseThrow();
+		long max = loads.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+		assertTrue(max - min <= TaskPriority.HIGH.getWeight(), "Разброс нагрузки: " + (max - min));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void distributes100kTasksAcross1kExecutors() {
+		Map<Long, Long> initial = new HashMap<>();
+		Random random = new Random(7);
+		for (long id = 1; id <= 1_000; id++) {
+			initial.put(id, (long) random.nextInt(50));
+		}
+
+		long start = System.nanoTime();
+		WorkloadBalancer balancer = new WorkloadBalancer(initial);
+		for (int i = 0; i < 100_000; i++) {
+			balancer.assign(TaskPriority.values()[i % TaskPriority.values().length]);
+		}
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+		System.out.println("WorkloadBalancer: 100000 задач / 1000 исполнителей за " + elapsedMs + " мс");
+		assertTrue(elapsedMs < 5_000);
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.taskPro.snapshot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Полностью очищает users, tasks и comments, поэтому работает в отдельной схеме; запуск — ./gradlew benchmark
+@SpringBootTest(properties = {
+		"spring.datasource.hikari.schema=taskpro_benchmark",
+		"spring.flyway.schemas=taskpro_benchmark",
+		"spring.flyway.default-schema=taskpro_benchmark"
+})
+@Tag("benchmark")
+class SnapshotBenchmarkTest {
+	private static final int USERS = 100_000;
+	private static final int TASKS = 4_900_000;
+	private static final int COMMENTS = 5_000_000;
+	private static final List<String> TABLES = List.of("users", "tasks", "comments");
+
+	@Autowired
+	private SnapshotService snapshotService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@TempDir
+	Path dir;
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.execute("TRUNCATE users, tasks, comments RESTART IDENTITY CASCADE");
+	}
+
+	@Test
+	void roundTripOfTenMillionRows() throws Exception {
+		jdbcTemplate.execute("TRUNCATE users, tasks, comments RESTART IDENTITY CASCADE");
+		jdbcTemplate.update("INSERT INTO users (email, password, role)"
+				+ " SELECT 'snap' || g || '@example.com', 'password', CASE WHEN g % 10 = 0 THEN 'ADMIN' ELSE 'USER' END"
+				+ " FROM generate_series(1, ?) g", USERS);
+		jdbcTemplate.update("INSERT INTO tasks (title, description, status, priority, author_id, executor_id, due_at)"
+				+ " SELECT 'snapshot ' || g, CASE WHEN g % 4 = 0 THEN NULL ELSE repeat('описание ', 1 + g % 8) END,"
+				+ " (ARRAY['PENDING', 'IN_PROGRESS', 'COMPLETED'])[1 + g % 3],"
+				+ " (ARRAY['LOW', 'MEDIUM', 'HIGH'])[1 + (g / 3) % 3],"
+				+ " 1 + g % ?, CASE WHEN g % 5 = 0 THEN NULL ELSE 1 + (g * 7) % ? END,"
+				+ " CASE WHEN g % 2 = 0 THEN NOW() + (g % 1000) * INTERVAL '1 hour' END"
+				+ " FROM generate_series(1, ?) g", USERS, USERS, TASKS);
+		jdbcTemplate.update("INSERT INTO comments (task_id, author_id, content, created_at)"
+				+ " SELECT 1 + g % ?, 1 + g % ?, 'комментарий\t' || g, NOW() - g * INTERVAL '1 second'"
+				+ " FROM generate_series(1, ?) g", TASKS, USERS, COMMENTS);
+		Map<String, String> before = fingerprints();
+
+		Path file = dir.resolve("taskpro.snap");
+		long start = System.nanoTime();
+		long exported = snapshotService.export(file);
+		report("Выгрузка", exported, start);
+		System.out.printf("Размер снимка: %.1f МБ%n", Files.size(file) / 1024.0 / 1024);
+
+		start = System.nanoTime();
+		long restored = snapshotService.restore(file, true);
+		report("Восстановление", restored, start);
+
+		assertEquals(USERS + TASKS + COMMENTS, exported);
+		assertEquals(exported, restored);
+		assertEquals(before, fingerprints());
+		// Последовательности сдвинуты за восстановленные id
+		assertEquals(USERS + 1L, jdbcTemplate.queryForObject("SELECT nextval('users_id_seq')", Long.class));
+	}
+
+	// Число строк и сумма хешей всех строк целиком: совпадает, только если совпали все значения
+	private Map<String, String> fingerprints() {
+		Map<String, String> result = new LinkedHashMap<>();
+		for (String table : TABLES) {
+			result.put(table, jdbcTemplate.queryForObject(
+					"SELECT count(*) || ':' || COALESCE(sum(hashtext(t::text)::bigint), 0) FROM " + table + " t",
+					String.class));
+		}
+		return result;
+	}
+
+	private void report(String name, long rows, long start) {
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%s: %d строк за %.1f с, %.0f строк/с%n", name, rows, seconds, rows / seconds);
+	}
+}
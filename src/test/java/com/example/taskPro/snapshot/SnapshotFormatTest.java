@@ -0,0 +1,88 @@
+package com.example.taskPro.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotFormatTest {
+	private static final List<SnapshotColumn> COLUMNS = List.of(
+			new SnapshotColumn("id", SnapshotColumnType.INT8),
+			new SnapshotColumn("title", SnapshotColumnType.TEXT),
+			new SnapshotColumn("created_at", SnapshotColumnType.TIMESTAMP));
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void roundTripsRowsAcrossBlocks() throws IOException {
+		Random random = new Random(7);
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			rows.add(new Object[]{
+					i * 3L - 500,
+					i % 7 == 0 ? null : "задача\t№" + random.nextInt() + "\n\\",
+					i % 5 == 0 ? null : random.nextLong()});
+		}
+		Path file = dir.resolve("round-trip.snap");
+		try (SnapshotWriter writer = new SnapshotWriter(file, 64)) {
+			writer.beginTable("tasks", COLUMNS);
+			for (Object[] row : rows) {
+				writer.writeRow(row);
+			}
+			writer.endTable();
+			writer.beginTable("comments", COLUMNS);
+			writer.endTable();
+		}
+
+		List<Object[]> restored = new ArrayList<>();
+		try (SnapshotReader reader = new SnapshotReader(file)) {
+			assertEquals(List.of("tasks", "comments"), reader.getTables().stream().map(SnapshotReader.Table::name).toList());
+			SnapshotReader.Table tasks = reader.getTables().get(0);
+			assertEquals(COLUMNS, tasks.columns());
+			assertEquals(1000, tasks.rowCount());
+			assertEquals(16, tasks.blocks().size());
+			assertEquals(0, reader.getTables().get(1).rowCount());
+			// Блоки независимы: порядок чтения не важен
+			for (int b = tasks.blocks().size() - 1; b >= 0; b--) {
+				List<Object[]> blockRows = new ArrayList<>();
+				reader.readBlock(tasks, tasks.blocks().get(b), values -> blockRows.add(values.clone()));
+				restored.addAll(0, blockRows);
+			}
+		}
+
+		assertEquals(rows.size(), restored.size());
+		for (int i = 0; i < rows.size(); i++) {
+			assertArrayEquals(rows.get(i), restored.get(i), "Строка " + i);
+		}
+	}
+
+	@Test
+	void sequentialIdsTakeAboutOneBytePerValue() throws IOException {
+		Path file = dir.resolve("ids.snap");
+		try (SnapshotWriter writer = new SnapshotWriter(file, SnapshotWriter.DEFAULT_BLOCK_ROWS)) {
+			writer.beginTable("users", List.of(new SnapshotColumn("id", SnapshotColumnType.INT8)));
+			for (long id = 1; id <= 100_000; id++) {
+				writer.writeRow(new Object[]{id});
+			}
+			writer.endTable();
+		}
+		assertTrue(Files.size(file) < 120_000, "Размер файла: " + Files.size(file));
+	}
+
+	@Test
+	void rejectsForeignFile() throws IOException {
+		Path file = Files.writeString(dir.resolve("dump.sql"), "COPY tasks FROM stdin;");
+		assertThrows(IOException.class, () -> new SnapshotReader(file));
+	}
+}
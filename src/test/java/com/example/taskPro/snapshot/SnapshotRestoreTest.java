@@ -0,0 +1,133 @@
+package com.example.taskPro.snapshot;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Контекст поднят в режиме снимка, как при запуске из командной строки, с архивацией раз в 50 мс.
+// Сам SnapshotRunner подменён: он восстанавливал бы файл из настроек и завершал JVM.
+// Восстановление очищает целые таблицы, поэтому тест работает в своей схеме
+@SpringBootTest(properties = {
+		"spring.datasource.hikari.schema=taskpro_snapshot_test",
+		"spring.flyway.schemas=taskpro_snapshot_test",
+		"spring.flyway.default-schema=taskpro_snapshot_test",
+		"taskpro.snapshot.mode=restore",
+		"taskpro.snapshot.file=unused.snap",
+		"taskpro.archive.initial-delay-ms=0",
+		"taskpro.archive.interval-ms=50"
+})
+class SnapshotRestoreTest {
+	private static final int TASKS = 500;
+
+	@MockBean
+	private SnapshotRunner snapshotRunner;
+
+	@Autowired
+	private SnapshotService snapshotService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ApplicationContext context;
+
+	@TempDir
+	Path dir;
+
+	private Long userId;
+
+	@BeforeEach
+	void setUp() {
+		truncateAll();
+		userId = jdbcTemplate.queryForObject("INSERT INTO users (email, password, role)"
+				+ " VALUES ('snapshot@example.com', 'password', 'ADMIN') RETURNING id", Long.class);
+		// Задачи завершены год назад: при включённом планировщике архивация забрала бы их сразу
+		jdbcTemplate.update("INSERT INTO tasks (title, status, priority, author_id, completed_at)"
+				+ " SELECT 'snapshot ' || g, 'COMPLETED', 'LOW', ?, NOW() - INTERVAL '1 year'"
+				+ " FROM generate_series(1, ?) g", userId, TASKS);
+		jdbcTemplate.update("INSERT INTO comments (task_id, author_id, content)"
+				+ " SELECT id, ?, 'комментарий' FROM tasks", userId);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		truncateAll();
+	}
+
+	@Test
+	void restoresWithoutBackgroundJobsInSnapshotMode() throws Exception {
+		assertTrue(context.getBeansOfType(ScheduledAnnotationBeanPostProcessor.class).isEmpty());
+		Path file = dir.resolve("restore.snap");
+		snapshotService.export(file);
+
+		snapshotService.restore(file, true);
+		Thread.sleep(500);
+
+		assertEquals(TASKS, count("tasks"));
+		assertEquals(TASKS, count("comments"));
+		assertEquals(0, count("tasks_archive"));
+		assertEquals(0, count("comments_archive"));
+	}
+
+	@Test
+	void truncateClearsTaskStateOfReplacedTasks() throws Exception {
+		Path file = dir.resolve("state.snap");
+		snapshotService.export(file);
+		jdbcTemplate.update("INSERT INTO task_tombstones (task_id) VALUES (-1)");
+		jdbcTemplate.update("INSERT INTO task_outbox (event_type, task_id, recipient_id, payload)"
+				+ " VALUES ('TASK_ASSIGNED', -1, ?, '{}')", userId);
+		jdbcTemplate.update("INSERT INTO task_unassignments (task_id, executor_id) VALUES (-1, ?)", userId);
+
+		snapshotService.restore(file, true);
+
+		assertEquals(TASKS, count("tasks"));
+		assertEquals(0, count("task_tombstones"));
+		assertEquals(0, count("task_outbox"));
+		assertEquals(0, count("task_unassignments"));
+	}
+
+	@Test
+	void refusesToRestoreOverArchivedTasks() throws Exception {
+		Path file = dir.resolve("archived.snap");
+		snapshotService.export(file);
+		jdbcTemplate.update("INSERT INTO tasks_archive (id, title, status, priority, author_id, created_at, updated_at)"
+				+ " VALUES (-1, 'archived', 'COMPLETED', 'LOW', ?, NOW(), NOW())", userId);
+
+		assertThrows(IllegalStateException.class, () -> snapshotService.restore(file, true));
+
+		assertEquals(TASKS, count("tasks"));
+		assertEquals(1, count("tasks_archive"));
+	}
+
+	@Test
+	void refusesToRestoreIntoNonEmptyTablesWithoutTruncate() throws Exception {
+		Path file = dir.resolve("occupied.snap");
+		snapshotService.export(file);
+
+		assertThrows(IllegalStateException.class, () -> snapshotService.restore(file, false));
+
+		assertEquals(TASKS, count("tasks"));
+	}
+
+	private long count(String table) {
+		return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+	}
+
+	private void truncateAll() {
+		jdbcTemplate.execute("TRUNCATE users, tasks, comments, tasks_archive, comments_archive, task_tombstones,"
+				+ " task_outbox, task_unassignments, cycle_time_histogram RESTART IDENTITY CASCADE");
+	}
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.example.taskPro.support;
+
+import com.example.taskPro.model.Role;
+import com.example.taskPro.model.User;
+import com.example.taskPro.repository.UserRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Пользователи тестов и уборка за ними. База общая, поэтому cleanUp удаляет только строки,
+// связанные с созданными здесь пользователями: их задачи (вместе с событиями, вложениями и архивом),
+// комментарии, задания массового удаления и отозванные токены
+public class TestFixtures {
+	private final UserRepository userRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final String emailPrefix;
+	private final List<Long> userIds = new ArrayList<>();
+
+	public TestFixtures(UserRepository userRepository, JdbcTemplate jdbcTemplate, String emailPrefix) {
+		this.userRepository = userRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.emailPrefix = emailPrefix;
+	}
+
+	public User saveUser(Role role) {
+		User user = userRepository.save(User.builder()
+				.email(emailPrefix + "-" + UUID.randomUUID() + "@example.com")
+				.password("password")
+				.role(role)
+				.build());
+		userIds.add(user.getId());
+		return user;
+	}
+
+	public Authentication auth(User user) {
+		return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+	}
+
+	public void cleanUp() {
+		if (userIds.isEmpty()) {
+			return;
+		}
+		String users = userIds.stream().map(String::valueOf).collect(Collectors.joining(", ", "(", ")"));
+		String tasks = "(SELECT id FROM tasks WHERE author_id IN " + users + " OR executor_id IN " + users + ")";
+		jdbcTemplate.update("DELETE FROM task_outbox WHERE task_id IN " + tasks + " OR recipient_id IN " + users);
+		jdbcTemplate.update("DELETE FROM task_unassignments WHERE executor_id IN " + users);
+		jdbcTemplate.update("DELETE FROM task_attachments WHERE uploader_id IN " + users);
+		jdbcTemplate.update("DELETE FROM cycle_time_histogram WHERE executor_id IN " + users);
+		jdbcTemplate.update("DELETE FROM bulk_delete_jobs WHERE created_by IN " + users);
+		jdbcTemplate.update("DELETE FROM comments WHERE author_id IN " + users);
+		jdbcTemplate.update("DELETE FROM tasks WHERE author_id IN " + users + " OR executor_id IN " + users);
+		jdbcTemplate.update("DELETE FROM comments_archive WHERE author_id IN " + users);
+		jdbcTemplate.update("DELETE FROM tasks_archive WHERE author_id IN " + users + " OR executor_id IN " + users);
+		jdbcTemplate.update("DELETE FROM revoked_tokens WHERE user_id IN " + users);
+		jdbcTemplate.update("DELETE FROM users WHERE id IN " + users);
+		userIds.clear();
+	}
+}
\ No newline at end of file